@@ -0,0 +1,243 @@
+package com.mobility.platform.booking.availability;
+
+import com.mobility.platform.booking.dto.VehicleAvailabilityResponse;
+import com.mobility.platform.booking.dto.VehicleAvailabilityResponse.BusyPeriod;
+import com.mobility.platform.booking.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-vehicle occupancy calendar of CONFIRMED/ONGOING bookings at slot granularity (15 minutes by default)
+ * from the start of today to a fixed horizon (90 days by default).
+ * <p>
+ * Each vehicle keeps its intervals and an immutable bitmap of occupied slots, rebuilt and swapped whenever one of
+ * its bookings changes, so reads never lock. Like {@link BookingAvailabilityIndex} it is fed by
+ * {@link BookingAvailabilityChangedEvent}s and periodically resynchronised from the database, which also slides
+ * the calendar forward day by day. Busy periods served from the bitmap are widened to slot boundaries and then
+ * clipped to the requested window, so inside the window a booking can appear up to one slot longer on each side;
+ * windows outside the calendar, or requests made before it is loaded, are answered exactly from the database.
+ */
+@Slf4j
+@Component
+public class AvailabilityCalendar {
+
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final int slotMinutes;
+    private final int horizonDays;
+
+    private volatile Calendar calendar;
+
+    /** Changes applied while a resync is loading; replayed onto the fresh calendar before it is swapped in. */
+    private List<BookingAvailabilityChangedEvent> journal;
+
+    public AvailabilityCalendar(BookingRepository bookingRepository,
+                                @Value("${booking.calendar.enabled:true}") boolean enabled,
+                                @Value("${booking.calendar.slot-minutes:15}") int slotMinutes,
+                                @Value("${booking.calendar.horizon-days:90}") int horizonDays) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.slotMinutes = Math.max(1, slotMinutes);
+        this.horizonDays = Math.max(1, horizonDays);
+    }
+
+    /** Availability of each requested vehicle in [from, to), in request order. */
+    public List<VehicleAvailabilityResponse> getAvailability(Collection<Long> vehicleIds,
+                                                             LocalDateTime from, LocalDateTime to) {
+        Calendar current = calendar;
+        if (enabled && current != null && current.covers(from, to)) {
+            List<VehicleAvailabilityResponse> result = new ArrayList<>(vehicleIds.size());
+            for (Long vehicleId : vehicleIds) {
+                VehicleSlots slots = current.vehicles.get(vehicleId);
+                List<BusyPeriod> busy = slots != null ? current.busyPeriods(slots.occupied, from, to) : List.of();
+                result.add(new VehicleAvailabilityResponse(vehicleId, busy.isEmpty(), busy));
+            }
+            return result;
+        }
+        return loadAvailability(vehicleIds, from, to);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookingAvailabilityChangedEvent event) {
+        synchronized (this) {
+            if (calendar != null) {
+                calendar.apply(event);
+            }
+            if (journal != null) {
+                journal.add(event);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.calendar.resync-interval-ms:300000}")
+    public void resync() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        try {
+            LocalDateTime origin = LocalDate.now().atStartOfDay();
+            Calendar fresh = new Calendar(origin, slotMinutes, horizonDays * 24 * 60 / slotMinutes);
+            bookingRepository.findActiveIntervals(origin).forEach(fresh::put);
+            synchronized (this) {
+                journal.forEach(fresh::apply);
+                calendar = fresh;
+            }
+            log.debug("Availability calendar loaded for {} vehicles", fresh.vehicles.size());
+        } catch (Exception e) {
+            log.error("Failed to resync availability calendar", e);
+        } finally {
+            synchronized (this) {
+                journal = null;
+            }
+        }
+    }
+
+    private List<VehicleAvailabilityResponse> loadAvailability(Collection<Long> vehicleIds,
+                                                               LocalDateTime from, LocalDateTime to) {
+        Map<Long, List<BookingInterval>> byVehicle = new HashMap<>();
+        for (BookingInterval interval : bookingRepository.findActiveIntervalsForVehicles(vehicleIds, from, to)) {
+            byVehicle.computeIfAbsent(interval.getVehicleId(), id -> new ArrayList<>()).add(interval);
+        }
+        List<VehicleAvailabilityResponse> result = new ArrayList<>(vehicleIds.size());
+        for (Long vehicleId : vehicleIds) {
+            List<BusyPeriod> busy = mergeClipped(byVehicle.getOrDefault(vehicleId, List.of()), from, to);
+            result.add(new VehicleAvailabilityResponse(vehicleId, busy.isEmpty(), busy));
+        }
+        return result;
+    }
+
+    private static List<BusyPeriod> mergeClipped(List<BookingInterval> intervals, LocalDateTime from, LocalDateTime to) {
+        List<BookingInterval> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparing(BookingInterval::getStartDateTime));
+        List<BusyPeriod> busy = new ArrayList<>();
+        for (BookingInterval interval : sorted) {
+            LocalDateTime start = interval.getStartDateTime().isBefore(from) ? from : interval.getStartDateTime();
+            LocalDateTime end = interval.getEndDateTime().isAfter(to) ? to : interval.getEndDateTime();
+            BusyPeriod last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+            if (last != null && !start.isAfter(last.getEnd())) {
+                if (end.isAfter(last.getEnd())) {
+                    last.setEnd(end);
+                }
+            } else {
+                busy.add(new BusyPeriod(start, end));
+            }
+        }
+        return busy;
+    }
+
+    private static final class Calendar {
+
+        private final LocalDateTime origin;
+        private final int slotMinutes;
+        private final int slotCount;
+        private final Map<Long, VehicleSlots> vehicles = new ConcurrentHashMap<>();
+
+        private Calendar(LocalDateTime origin, int slotMinutes, int slotCount) {
+            this.origin = origin;
+            this.slotMinutes = slotMinutes;
+            this.slotCount = slotCount;
+        }
+
+        private boolean covers(LocalDateTime from, LocalDateTime to) {
+            return !from.isBefore(origin) && !to.isAfter(slotStart(slotCount));
+        }
+
+        private void apply(BookingAvailabilityChangedEvent event) {
+            if (event.isOccupied()) {
+                put(event.getInterval());
+            } else {
+                VehicleSlots slots = vehicles.get(event.getInterval().getVehicleId());
+                if (slots != null) {
+                    slots.remove(event.getInterval().getBookingId(), this);
+                }
+            }
+        }
+
+        private void put(BookingInterval interval) {
+            vehicles.computeIfAbsent(interval.getVehicleId(), id -> new VehicleSlots()).put(interval, this);
+        }
+
+        private List<BusyPeriod> busyPeriods(BitSet occupied, LocalDateTime from, LocalDateTime to) {
+            int toSlot = ceilSlot(to);
+            List<BusyPeriod> busy = new ArrayList<>();
+            int start = occupied.nextSetBit(floorSlot(from));
+            while (start >= 0 && start < toSlot) {
+                int end = Math.min(occupied.nextClearBit(start), toSlot);
+                LocalDateTime busyStart = slotStart(start).isBefore(from) ? from : slotStart(start);
+                LocalDateTime busyEnd = slotStart(end).isAfter(to) ? to : slotStart(end);
+                if (busyStart.isBefore(busyEnd)) {
+                    busy.add(new BusyPeriod(busyStart, busyEnd));
+                }
+                start = occupied.nextSetBit(end);
+            }
+            return busy;
+        }
+
+        private int floorSlot(LocalDateTime time) {
+            long slotSeconds = slotMinutes * 60L;
+            return clamp(Math.floorDiv(Duration.between(origin, time).getSeconds(), slotSeconds));
+        }
+
+        private int ceilSlot(LocalDateTime time) {
+            long slotSeconds = slotMinutes * 60L;
+            return clamp(Math.floorDiv(Duration.between(origin, time).getSeconds() + slotSeconds - 1, slotSeconds));
+        }
+
+        private int clamp(long slot) {
+            return (int) Math.max(0, Math.min(slotCount, slot));
+        }
+
+        private LocalDateTime slotStart(int slot) {
+            return origin.plusMinutes((long) slot * slotMinutes);
+        }
+    }
+
+    private static final class VehicleSlots {
+
+        private final Map<Long, BookingInterval> intervals = new LinkedHashMap<>();
+        /** Never mutated once published; replaced wholesale on every change. */
+        private volatile BitSet occupied = new BitSet();
+
+        private synchronized void put(BookingInterval interval, Calendar calendar) {
+            intervals.put(interval.getBookingId(), interval);
+            rebuild(calendar);
+        }
+
+        private synchronized void remove(Long bookingId, Calendar calendar) {
+            if (intervals.remove(bookingId) != null) {
+                rebuild(calendar);
+            }
+        }
+
+        private void rebuild(Calendar calendar) {
+            BitSet next = new BitSet(calendar.slotCount);
+            for (BookingInterval interval : intervals.values()) {
+                int from = calendar.floorSlot(interval.getStartDateTime());
+                int to = calendar.ceilSlot(interval.getEndDateTime());
+                if (from < to) {
+                    next.set(from, to);
+                }
+            }
+            occupied = next;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.mobility.platform.booking.availability;
+
+import com.mobility.platform.booking.entity.Booking;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event raised whenever a booking starts or stops holding its vehicle
+ * (CONFIRMED/ONGOING vs. anything else). Listeners receive it after the transaction commits.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingAvailabilityChangedEvent {
+
+    private final BookingInterval interval;
+    private final boolean occupied;
+
+    public static BookingAvailabilityChangedEvent occupied(Booking booking) {
+        return new BookingAvailabilityChangedEvent(toInterval(booking), true);
+    }
+
+    public static BookingAvailabilityChangedEvent released(Booking booking) {
+        return new BookingAvailabilityChangedEvent(toInterval(booking), false);
+    }
+
+    public static BookingAvailabilityChangedEvent released(BookingInterval interval) {
+        return new BookingAvailabilityChangedEvent(interval, false);
+    }
+
+    private static BookingInterval toInterval(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getVehicleId(),
+                booking.getStartDateTime(), booking.getEndDateTime());
+    }
+}
@@ -0,0 +1,167 @@
+package com.mobility.platform.booking.availability;
+
+import com.mobility.platform.booking.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory interval index of CONFIRMED/ONGOING bookings, ordered by start time.
+ * <p>
+ * Answers "which vehicles are booked in [start, end)" by scanning only the intervals whose start lies in
+ * [start - longestBooking, end), so lookups stay flat as the bookings table grows. The index is kept current
+ * from {@link BookingAvailabilityChangedEvent}s and periodically resynchronised from the database, which also
+ * picks up changes committed by other booking-service replicas. Windows that begin before the loaded horizon
+ * return empty so callers fall back to the indexed database query.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+
+    private final BookingRepository bookingRepository;
+
+    @Value("${booking.availability.index-enabled:true}")
+    private boolean enabled;
+
+    /** How far back (in hours) ended intervals are loaded, so recent-past windows can still be served. */
+    @Value("${booking.availability.retention-hours:24}")
+    private long retentionHours;
+
+    private volatile State state;
+
+    /** Changes applied while a resync is loading; replayed onto the fresh state before it is swapped in. */
+    private List<BookingAvailabilityChangedEvent> journal;
+
+    /**
+     * Vehicle IDs with an active booking overlapping the window, or empty if the index cannot answer
+     * (disabled, not yet loaded, or the window starts before the loaded horizon).
+     */
+    public Optional<List<Long>> findBookedVehicleIds(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        State current = state;
+        if (!enabled || current == null || startDateTime.isBefore(current.horizon)) {
+            return Optional.empty();
+        }
+        LocalDateTime lowerBound = startDateTime.minusSeconds(current.maxDurationSeconds);
+        Set<Long> vehicleIds = new LinkedHashSet<>();
+        for (BookingInterval interval : current.byStart
+                .subMap(IntervalKey.lowest(lowerBound), true, IntervalKey.lowest(endDateTime), false)
+                .values()) {
+            if (interval.getEndDateTime().isAfter(startDateTime)) {
+                vehicleIds.add(interval.getVehicleId());
+            }
+        }
+        return Optional.of(new ArrayList<>(vehicleIds));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookingAvailabilityChangedEvent event) {
+        synchronized (this) {
+            if (state != null) {
+                state.apply(event);
+            }
+            if (journal != null) {
+                journal.add(event);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.availability.resync-interval-ms:60000}")
+    public void resync() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        try {
+            LocalDateTime horizon = LocalDateTime.now().minusHours(retentionHours);
+            State fresh = new State(horizon);
+            bookingRepository.findActiveIntervals(horizon).forEach(fresh::put);
+            synchronized (this) {
+                journal.forEach(fresh::apply);
+                state = fresh;
+            }
+            log.debug("Booking availability index loaded with {} intervals", fresh.byId.size());
+        } catch (Exception e) {
+            log.error("Failed to resync booking availability index", e);
+        } finally {
+            synchronized (this) {
+                journal = null;
+            }
+        }
+    }
+
+    private record IntervalKey(LocalDateTime start, long bookingId) implements Comparable<IntervalKey> {
+
+        private static final Comparator<IntervalKey> ORDER = Comparator
+                .comparing(IntervalKey::start)
+                .thenComparingLong(IntervalKey::bookingId);
+
+        static IntervalKey of(BookingInterval interval) {
+            return new IntervalKey(interval.getStartDateTime(), interval.getBookingId());
+        }
+
+        static IntervalKey lowest(LocalDateTime start) {
+            return new IntervalKey(start, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(IntervalKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class State {
+
+        private final LocalDateTime horizon;
+        private final ConcurrentSkipListMap<IntervalKey, BookingInterval> byStart = new ConcurrentSkipListMap<>();
+        private final Map<Long, BookingInterval> byId = new ConcurrentHashMap<>();
+        /** Upper bound on booking length; only grows until the next resync rebuilds the state. */
+        private volatile long maxDurationSeconds;
+
+        private State(LocalDateTime horizon) {
+            this.horizon = horizon;
+        }
+
+        private void apply(BookingAvailabilityChangedEvent event) {
+            if (event.isOccupied()) {
+                put(event.getInterval());
+            } else {
+                remove(event.getInterval().getBookingId());
+            }
+        }
+
+        private void put(BookingInterval interval) {
+            remove(interval.getBookingId());
+            byId.put(interval.getBookingId(), interval);
+            byStart.put(IntervalKey.of(interval), interval);
+            long seconds = Duration.between(interval.getStartDateTime(), interval.getEndDateTime()).getSeconds();
+            if (seconds > maxDurationSeconds) {
+                maxDurationSeconds = seconds;
+            }
+        }
+
+        private void remove(Long bookingId) {
+            BookingInterval previous = byId.remove(bookingId);
+            if (previous != null) {
+                byStart.remove(IntervalKey.of(previous));
+            }
+        }
+    }
+}
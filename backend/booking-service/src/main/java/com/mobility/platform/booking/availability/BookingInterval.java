@@ -0,0 +1,22 @@
+package com.mobility.platform.booking.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of the time window a booking holds a vehicle for.
+ * Loaded with a JPQL constructor expression so availability queries never hydrate Booking entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingInterval {
+
+    private Long bookingId;
+    private Long vehicleId;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime;
+}
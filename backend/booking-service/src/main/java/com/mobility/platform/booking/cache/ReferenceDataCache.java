@@ -0,0 +1,87 @@
+package com.mobility.platform.booking.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mobility.platform.booking.client.ReferenceDataLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded near-cache in front of user-service and vehicle-service lookups.
+ * Entries expire after a TTL and are evicted by size; {@link ReferenceDataInvalidationListener} drops entries
+ * as soon as the owning service announces a change. Misses are resolved in bulk through
+ * {@link ReferenceDataLoader}. Hit/miss/eviction counters are published as {@code cache.*} meters
+ * (cache=bookingUserCache / bookingVehicleCache) on the Prometheus endpoint.
+ */
+@Slf4j
+@Component
+public class ReferenceDataCache {
+
+    private final ReferenceDataLoader referenceDataLoader;
+    private final Cache<Long, Map<String, Object>> users;
+    private final Cache<Long, Map<String, Object>> vehicles;
+
+    public ReferenceDataCache(ReferenceDataLoader referenceDataLoader,
+                              MeterRegistry meterRegistry,
+                              @Value("${booking.cache.user.ttl-seconds:600}") long userTtlSeconds,
+                              @Value("${booking.cache.user.max-size:50000}") long userMaxSize,
+                              @Value("${booking.cache.vehicle.ttl-seconds:300}") long vehicleTtlSeconds,
+                              @Value("${booking.cache.vehicle.max-size:20000}") long vehicleMaxSize) {
+        this.referenceDataLoader = referenceDataLoader;
+        this.users = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(userTtlSeconds))
+                .maximumSize(userMaxSize)
+                .recordStats()
+                .build();
+        this.vehicles = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(vehicleTtlSeconds))
+                .maximumSize(vehicleMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "bookingUserCache");
+        CaffeineCacheMetrics.monitor(meterRegistry, vehicles, "bookingVehicleCache");
+    }
+
+    /** Users keyed by ID; IDs unknown to user-service (or failed lookups) are absent. */
+    public Map<Long, Map<String, Object>> getUsers(Collection<Long> ids) {
+        return users.getAll(withoutNulls(ids), missing -> referenceDataLoader.loadUsers(new ArrayList<>(missing)));
+    }
+
+    /** Vehicles keyed by ID; IDs unknown to vehicle-service (or failed lookups) are absent. */
+    public Map<Long, Map<String, Object>> getVehicles(Collection<Long> ids) {
+        return vehicles.getAll(withoutNulls(ids), missing -> referenceDataLoader.loadVehicles(new ArrayList<>(missing)));
+    }
+
+    public Map<String, Object> getVehicle(Long id) {
+        return getVehicles(List.of(id)).get(id);
+    }
+
+    public void evictUser(Long id) {
+        users.invalidate(id);
+    }
+
+    public void evictVehicle(Long id) {
+        vehicles.invalidate(id);
+    }
+
+    public void evictAllUsers() {
+        users.invalidateAll();
+    }
+
+    public void evictAllVehicles() {
+        vehicles.invalidateAll();
+    }
+
+    private List<Long> withoutNulls(Collection<Long> ids) {
+        return ids.stream().filter(id -> id != null).distinct().toList();
+    }
+}
@@ -0,0 +1,75 @@
+package com.mobility.platform.booking.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invalidates {@link ReferenceDataCache} entries from the {@code user.*} and {@code vehicle.vehicle.*} events
+ * published on the {@code mobility.events} exchange. Every booking-service instance binds its own anonymous
+ * queue, so each replica sees every change.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataInvalidationListener {
+
+    private final ReferenceDataCache referenceDataCache;
+    private final MessageConverter messageConverter;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(value = "mobility.events", type = ExchangeTypes.TOPIC),
+            key = {"user.#", "vehicle.vehicle.#"}))
+    public void onReferenceDataChanged(Message message) {
+        String routingKey = message.getMessageProperties().getReceivedRoutingKey();
+        boolean userEvent = routingKey.startsWith("user.");
+        Object payload = readPayload(message);
+        if (!userEvent && payload instanceof Map<?, ?> data && data.get("vehicleIds") instanceof List<?> ids) {
+            ids.forEach(vehicleId -> referenceDataCache.evictVehicle(Long.valueOf(vehicleId.toString())));
+            log.debug("Invalidated {} cached vehicles for {}", ids.size(), routingKey);
+            return;
+        }
+        Long id = extractId(payload, userEvent ? "userId" : "vehicleId");
+
+        if (id == null) {
+            // Unknown payload shape: drop the whole cache rather than risk serving stale data
+            if (userEvent) {
+                referenceDataCache.evictAllUsers();
+            } else {
+                referenceDataCache.evictAllVehicles();
+            }
+        } else if (userEvent) {
+            referenceDataCache.evictUser(id);
+        } else {
+            referenceDataCache.evictVehicle(id);
+        }
+        log.debug("Invalidated cached reference data for {} (id={})", routingKey, id);
+    }
+
+    private Object readPayload(Message message) {
+        try {
+            return messageConverter.fromMessage(message);
+        } catch (Exception e) {
+            log.warn("Could not read reference data event payload: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Long extractId(Object payload, String key) {
+        if (payload instanceof Map<?, ?> data && data.get(key) != null) {
+            return Long.valueOf(data.get(key).toString());
+        }
+        return null;
+    }
+}
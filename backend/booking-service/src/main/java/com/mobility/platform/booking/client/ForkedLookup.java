@@ -0,0 +1,50 @@
+package com.mobility.platform.booking.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A lookup handed to an executor that the caller may still run itself: whichever of the executor and
+ * {@link #join()} reaches it first runs it. A caller never waits on a lookup that is still queued, so lookups
+ * that fork further lookups onto the same bounded pool (as {@link ReferenceDataLoader} does) cannot starve it.
+ */
+public final class ForkedLookup<T> {
+
+    private final Supplier<T> lookup;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    private ForkedLookup(Supplier<T> lookup) {
+        this.lookup = lookup;
+    }
+
+    /** Queues the lookup on {@code executor}; if the executor rejects it, {@link #join()} runs it. */
+    public static <T> ForkedLookup<T> fork(Supplier<T> lookup, Executor executor) {
+        ForkedLookup<T> forked = new ForkedLookup<>(lookup);
+        try {
+            executor.execute(forked::runIfUnclaimed);
+        } catch (RejectedExecutionException e) {
+            // Left unclaimed for join()
+        }
+        return forked;
+    }
+
+    /** The lookup's result, running it on the calling thread if no executor thread has started it yet. */
+    public T join() {
+        runIfUnclaimed();
+        return result.join();
+    }
+
+    private void runIfUnclaimed() {
+        if (claimed.compareAndSet(false, true)) {
+            try {
+                result.complete(lookup.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.mobility.platform.booking.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobility.platform.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bulk loader for user and vehicle data owned by other services.
+ * IDs are de-duplicated, split into chunks of {@code booking.enrichment.batch-size} and each chunk is fetched
+ * through the {@code /batch} endpoints; multiple chunks are fetched in parallel on the enrichment executor, and
+ * a chunk no executor thread has picked up yet is fetched by the caller. Lookups are best-effort:
+ * a failed chunk is logged and simply missing from the result.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataLoader {
+
+    private final UserClient userClient;
+    private final VehicleClient vehicleClient;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor enrichmentExecutor;
+
+    @Value("${booking.enrichment.batch-size:200}")
+    private int batchSize;
+
+    /** Users keyed by ID, as returned by user-service. */
+    public Map<Long, Map<String, Object>> loadUsers(Collection<Long> ids) {
+        return load(ids, userClient::getUsersByIds, "users");
+    }
+
+    /** Vehicles keyed by ID, as returned by vehicle-service. */
+    public Map<Long, Map<String, Object>> loadVehicles(Collection<Long> ids) {
+        return load(ids, vehicleClient::getVehiclesByIds, "vehicles");
+    }
+
+    private Map<Long, Map<String, Object>> load(Collection<Long> ids,
+                                                Function<List<Long>, ApiResponse<List<Object>>> fetcher,
+                                                String label) {
+        List<Long> distinct = ids.stream().filter(id -> id != null).distinct().toList();
+        if (distinct.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += batchSize) {
+            chunks.add(distinct.subList(i, Math.min(i + batchSize, distinct.size())));
+        }
+        if (chunks.size() == 1) {
+            return fetchChunk(chunks.get(0), fetcher, label);
+        }
+        List<ForkedLookup<Map<Long, Map<String, Object>>>> lookups = chunks.stream()
+                .map(chunk -> ForkedLookup.fork(() -> fetchChunk(chunk, fetcher, label), enrichmentExecutor))
+                .toList();
+        Map<Long, Map<String, Object>> result = new HashMap<>();
+        lookups.forEach(lookup -> result.putAll(lookup.join()));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Map<String, Object>> fetchChunk(List<Long> chunk,
+                                                      Function<List<Long>, ApiResponse<List<Object>>> fetcher,
+                                                      String label) {
+        Map<Long, Map<String, Object>> result = new HashMap<>();
+        try {
+            ApiResponse<List<Object>> response = fetcher.apply(chunk);
+            if (response == null || response.getData() == null) {
+                return result;
+            }
+            for (Object item : response.getData()) {
+                Map<String, Object> data = objectMapper.convertValue(item, Map.class);
+                if (data.get("id") != null) {
+                    result.put(Long.valueOf(data.get("id").toString()), data);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to load {} {} in batch: {}", chunk.size(), label, e.getMessage());
+        }
+        return result;
+    }
+}
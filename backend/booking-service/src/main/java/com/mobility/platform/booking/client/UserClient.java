@@ -4,6 +4,10 @@ import com.mobility.platform.common.dto.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 /**
  * Feign client for User Service
@@ -14,6 +18,9 @@ public interface UserClient {
     
     @GetMapping("/{id}")
     ApiResponse<Object> getUserById(@PathVariable("id") Long id);
+    
+    @PostMapping("/batch")
+    ApiResponse<List<Object>> getUsersByIds(@RequestBody List<Long> ids);
 }
 
 
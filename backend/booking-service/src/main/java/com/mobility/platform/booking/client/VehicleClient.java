@@ -5,6 +5,9 @@ import com.mobility.platform.common.enums.VehicleStatus;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Feign client for Vehicle Service
  * Uses service discovery via Eureka when available, or direct URL if configured
@@ -15,10 +18,22 @@ public interface VehicleClient {
     @GetMapping("/{id}")
     ApiResponse<Object> getVehicleById(@PathVariable("id") Long id);
     
+    @PostMapping("/batch")
+    ApiResponse<List<Object>> getVehiclesByIds(@RequestBody List<Long> ids);
+    
+    /** Applies only while the vehicle is still in {@code expectedStatus} when one is given. */
     @PatchMapping("/{id}/status")
     ApiResponse<Object> updateVehicleStatus(
             @PathVariable("id") Long id,
-            @RequestParam("status") VehicleStatus status);
+            @RequestParam("status") VehicleStatus status,
+            @RequestParam(value = "expectedStatus", required = false) VehicleStatus expectedStatus);
+    
+    /**
+     * Body: {@code {"updates": [{"vehicleId": 1, "status": "BOOKED", "expectedStatus": "AVAILABLE"}, ...]}},
+     * at most 500 updates; updates whose expected status no longer holds are skipped.
+     */
+    @PatchMapping("/status/batch")
+    ApiResponse<List<Object>> updateVehicleStatuses(@RequestBody Map<String, Object> request);
 }
 
 
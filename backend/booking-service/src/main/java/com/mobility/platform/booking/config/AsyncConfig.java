@@ -0,0 +1,39 @@
+package com.mobility.platform.booking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for fan-out work that should not run on request threads.
+ */
+@Configuration
+public class AsyncConfig {
+
+    /** Runs batched user/vehicle lookups against downstream services in parallel. */
+    @Bean
+    public ThreadPoolTaskExecutor enrichmentExecutor(
+            @Value("${booking.enrichment.parallelism:8}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("enrichment-");
+        executor.initialize();
+        return executor;
+    }
+
+    /** Runs chunked booking expiry workers; each worker claims disjoint chunks with SKIP LOCKED. */
+    @Bean
+    public ThreadPoolTaskExecutor expiryExecutor(
+            @Value("${booking.expiry.parallelism:2}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(parallelism);
+        executor.setThreadNamePrefix("expiry-");
+        executor.initialize();
+        return executor;
+    }
+}
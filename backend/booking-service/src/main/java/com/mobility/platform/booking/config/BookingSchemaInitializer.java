@@ -0,0 +1,70 @@
+package com.mobility.platform.booking.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies PostgreSQL-specific schema objects that Hibernate's ddl-auto cannot express. Every statement is
+ * idempotent. The booking overlap constraint is the last line of defence against double booking, so startup
+ * fails when it cannot be put in place (typically because existing rows already overlap).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingSchemaInitializer implements CommandLineRunner {
+
+    static final String BOOKING_OVERLAP_CONSTRAINT_NAME = "ex_booking_vehicle_no_overlap";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Backstop for booking admission: no two CONFIRMED/ONGOING bookings of a vehicle may overlap. Windows are
+     * half-open ({@code [start, end)}), like every overlap query in BookingRepository, so back-to-back bookings
+     * are allowed. A constraint left by an older version with inclusive bounds is replaced.
+     */
+    private static final String BOOKING_OVERLAP_CONSTRAINT = """
+            DO $$
+            BEGIN
+                IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ex_booking_vehicle_no_overlap'
+                           AND pg_get_constraintdef(oid) LIKE '%''[]''%') THEN
+                    ALTER TABLE bookings DROP CONSTRAINT ex_booking_vehicle_no_overlap;
+                END IF;
+                IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ex_booking_vehicle_no_overlap') THEN
+                    ALTER TABLE bookings ADD CONSTRAINT ex_booking_vehicle_no_overlap
+                        EXCLUDE USING gist (vehicle_id WITH =, tsrange(start_date_time, end_date_time, '[)') WITH &&)
+                        WHERE (status IN ('CONFIRMED', 'ONGOING'));
+                END IF;
+            END $$
+            """;
+
+    @Override
+    public void run(String... args) {
+        execute("btree_gist extension", "CREATE EXTENSION IF NOT EXISTS btree_gist");
+        try {
+            jdbcTemplate.execute(BOOKING_OVERLAP_CONSTRAINT);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not apply booking overlap exclusion constraint "
+                    + BOOKING_OVERLAP_CONSTRAINT_NAME + "; resolve overlapping CONFIRMED/ONGOING bookings and restart", e);
+        }
+        Integer present = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = ? AND convalidated",
+                Integer.class, BOOKING_OVERLAP_CONSTRAINT_NAME);
+        if (present == null || present == 0) {
+            throw new IllegalStateException("Booking overlap exclusion constraint "
+                    + BOOKING_OVERLAP_CONSTRAINT_NAME + " is missing");
+        }
+        log.info("Ensured booking overlap exclusion constraint");
+    }
+
+    private void execute(String description, String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+            log.info("Ensured {}", description);
+        } catch (Exception e) {
+            log.warn("Could not apply {}: {}", description, e.getMessage());
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.mobility.platform.booking.controller;
 
+import com.mobility.platform.booking.dto.BookedVehicleCheckRequest;
 import com.mobility.platform.booking.dto.BookingRequest;
 import com.mobility.platform.booking.dto.BookingResponse;
+import com.mobility.platform.booking.dto.BookingSummary;
+import com.mobility.platform.booking.dto.VehicleAvailabilityResponse;
+import com.mobility.platform.booking.service.BookingIdempotencyService;
 import com.mobility.platform.booking.service.BookingService;
 import com.mobility.platform.common.dto.ApiResponse;
+import com.mobility.platform.common.dto.PageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,12 +32,17 @@ import java.util.List;
 public class BookingController {
     
     private final BookingService bookingService;
+    private final BookingIdempotencyService bookingIdempotencyService;
     
     @PostMapping
-    @Operation(summary = "Create new booking")
+    @Operation(summary = "Create new booking",
+            description = "Send an Idempotency-Key header to make retries safe: a repeated key returns the original booking.")
     public ResponseEntity<ApiResponse<BookingResponse>> createBooking(
-            @Valid @RequestBody BookingRequest request) {
-        BookingResponse response = bookingService.createBooking(request);
+            @Valid @RequestBody BookingRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        BookingResponse response = idempotencyKey == null
+                ? bookingService.createBooking(request)
+                : bookingIdempotencyService.execute(idempotencyKey, request, key -> bookingService.createBooking(request, key));
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Booking created successfully", response));
     }
@@ -64,6 +76,64 @@ public class BookingController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    @GetMapping("/user/{userId}/page")
+    @Operation(summary = "Get bookings by user ID, keyset-paginated (newest first)",
+            description = "Pass the nextCursor of the previous page to continue; omit it for the first page.")
+    public ResponseEntity<ApiResponse<PageResponse<BookingResponse>>> getUserBookingsPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PageResponse<BookingResponse> response = bookingService.getUserBookingsPage(userId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    @GetMapping("/vehicle/{vehicleId}/page")
+    @Operation(summary = "Get bookings by vehicle ID, keyset-paginated (newest first)",
+            description = "Pass the nextCursor of the previous page to continue; omit it for the first page.")
+    public ResponseEntity<ApiResponse<PageResponse<BookingResponse>>> getVehicleBookingsPage(
+            @PathVariable Long vehicleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PageResponse<BookingResponse> response = bookingService.getVehicleBookingsPage(vehicleId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    @GetMapping("/user/{userId}/summaries")
+    @Operation(summary = "Get lightweight booking summaries by user ID, keyset-paginated (newest first)",
+            description = "List-level fields plus renter/owner names; use GET /{id} for full details.")
+    public ResponseEntity<ApiResponse<PageResponse<BookingSummary>>> getUserBookingSummaries(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PageResponse<BookingSummary> response = bookingService.getUserBookingSummaries(userId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    @GetMapping("/vehicle/{vehicleId}/summaries")
+    @Operation(summary = "Get lightweight booking summaries by vehicle ID, keyset-paginated (newest first)",
+            description = "List-level fields plus renter/owner names; use GET /{id} for full details.")
+    public ResponseEntity<ApiResponse<PageResponse<BookingSummary>>> getVehicleBookingSummaries(
+            @PathVariable Long vehicleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PageResponse<BookingSummary> response = bookingService.getVehicleBookingSummaries(vehicleId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    @GetMapping(value = "/user/{userId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export a user's full booking history as NDJSON (newest first)")
+    public ResponseEntity<StreamingResponseBody> exportUserBookings(@PathVariable Long userId) {
+        StreamingResponseBody body = out -> bookingService.exportUserBookings(userId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    @GetMapping(value = "/vehicle/{vehicleId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export a vehicle's full booking history as NDJSON (newest first)")
+    public ResponseEntity<StreamingResponseBody> exportVehicleBookings(@PathVariable Long vehicleId) {
+        StreamingResponseBody body = out -> bookingService.exportVehicleBookings(vehicleId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
     @PatchMapping("/{id}/confirm")
     @Operation(summary = "Confirm booking")
     public ResponseEntity<ApiResponse<BookingResponse>> confirmBooking(@PathVariable Long id) {
@@ -113,6 +183,29 @@ public class BookingController {
         return ResponseEntity.ok(ApiResponse.success(bookedVehicleIds));
     }
     
+    @PostMapping("/booked-vehicles/check")
+    @Operation(summary = "Get which of the given vehicles are booked in a time range",
+            description = "Returns the subset of vehicleIds with a confirmed or ongoing booking overlapping the window.")
+    public ResponseEntity<ApiResponse<List<Long>>> checkBookedVehicles(
+            @Valid @RequestBody BookedVehicleCheckRequest request) {
+        List<Long> bookedVehicleIds = bookingService.findBookedVehicleIdsAmong(
+                request.getVehicleIds(), request.getStartDateTime(), request.getEndDateTime());
+        return ResponseEntity.ok(ApiResponse.success(bookedVehicleIds));
+    }
+    
+    @GetMapping("/availability")
+    @Operation(summary = "Get occupancy of one or more vehicles in a time window",
+            description = "Served from the in-memory availability calendar (15-minute slots, next 90 days); "
+                    + "windows outside the calendar are answered from the database.")
+    public ResponseEntity<ApiResponse<List<VehicleAvailabilityResponse>>> getAvailability(
+            @RequestParam List<Long> vehicleIds,
+            @RequestParam String from,
+            @RequestParam String to) {
+        List<VehicleAvailabilityResponse> response = bookingService.getAvailability(
+                vehicleIds, LocalDateTime.parse(from), LocalDateTime.parse(to));
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
     @GetMapping("/health")
     @Operation(summary = "Health check")
     public ResponseEntity<ApiResponse<String>> health() {
@@ -0,0 +1,24 @@
+package com.mobility.platform.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Candidate vehicles to check against a booking window
+ */
+@Data
+public class BookedVehicleCheckRequest {
+    
+    @NotEmpty(message = "Vehicle IDs are required")
+    private List<Long> vehicleIds;
+    
+    @NotNull(message = "Start date/time is required")
+    private LocalDateTime startDateTime;
+    
+    @NotNull(message = "End date/time is required")
+    private LocalDateTime endDateTime;
+}
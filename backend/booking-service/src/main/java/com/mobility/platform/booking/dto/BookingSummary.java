@@ -0,0 +1,57 @@
+package com.mobility.platform.booking.dto;
+
+import com.mobility.platform.common.enums.BookingStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * List-level booking read model. Loaded with a JPQL constructor projection (only the columns below),
+ * then enriched with renter and owner names from the reference-data cache.
+ */
+@Data
+@NoArgsConstructor
+public class BookingSummary {
+    
+    private Long id;
+    private String bookingNumber;
+    private Long userId;
+    private Long vehicleId;
+    private BookingStatus status;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime;
+    private Boolean withDriver;
+    private BigDecimal finalPrice;
+    private Boolean paymentCompleted;
+    private Boolean deliveryRequested;
+    private LocalDateTime createdAt;
+    
+    // Renter name
+    private String userFirstName;
+    private String userLastName;
+    
+    // Owner name (only populated for confirmed bookings)
+    private String ownerFirstName;
+    private String ownerLastName;
+    
+    /** Projection constructor used by BookingRepository summary queries. */
+    public BookingSummary(Long id, String bookingNumber, Long userId, Long vehicleId, BookingStatus status,
+                          LocalDateTime startDateTime, LocalDateTime endDateTime, Boolean withDriver,
+                          BigDecimal finalPrice, Boolean paymentCompleted, Boolean deliveryRequested,
+                          LocalDateTime createdAt) {
+        this.id = id;
+        this.bookingNumber = bookingNumber;
+        this.userId = userId;
+        this.vehicleId = vehicleId;
+        this.status = status;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+        this.withDriver = withDriver;
+        this.finalPrice = finalPrice;
+        this.paymentCompleted = paymentCompleted;
+        this.deliveryRequested = deliveryRequested;
+        this.createdAt = createdAt;
+    }
+}
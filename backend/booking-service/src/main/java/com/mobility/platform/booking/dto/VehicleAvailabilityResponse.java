@@ -0,0 +1,36 @@
+package com.mobility.platform.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Occupancy of one vehicle within a requested window
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleAvailabilityResponse {
+    
+    private Long vehicleId;
+    
+    /** True when no busy period is reported, i.e. no CONFIRMED/ONGOING booking overlaps the (slot-rounded) window. */
+    private boolean available;
+    
+    /**
+     * Occupied periods clipped to the window, in start order. Periods served from the in-memory calendar are
+     * rounded out to its slot boundaries (15 minutes by default) before clipping.
+     */
+    private List<BusyPeriod> busy;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BusyPeriod {
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
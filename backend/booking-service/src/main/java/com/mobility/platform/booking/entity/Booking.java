@@ -24,7 +24,13 @@ import java.time.LocalDateTime;
         @Index(name = "idx_user_id", columnList = "userId"),
         @Index(name = "idx_vehicle_id", columnList = "vehicleId"),
         @Index(name = "idx_status", columnList = "status"),
-        @Index(name = "idx_start_date", columnList = "startDateTime")
+        @Index(name = "idx_start_date", columnList = "startDateTime"),
+        @Index(name = "idx_booking_window", columnList = "status, startDateTime, endDateTime, vehicleId"),
+        @Index(name = "idx_booking_vehicle_window", columnList = "vehicleId, status, startDateTime, endDateTime"),
+        @Index(name = "idx_booking_user_history", columnList = "userId, createdAt, id"),
+        @Index(name = "idx_booking_vehicle_history", columnList = "vehicleId, createdAt, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_booking_idempotency_key", columnNames = "idempotency_key")
 })
 public class Booking extends BaseEntity {
     
@@ -107,6 +113,10 @@ public class Booking extends BaseEntity {
     private BigDecimal deliveryFee;
 
     private Double deliveryDistanceKm;
+
+    /** "userId:Idempotency-Key" of the request that created the booking; null when none was sent. */
+    @Column(name = "idempotency_key", length = 128)
+    private String idempotencyKey;
 }
 
 
@@ -0,0 +1,56 @@
+package com.mobility.platform.booking.outbox;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A side effect of a booking state change, written in the same transaction as the change and shipped
+ * afterwards by {@link OutboxRelay}. Events sharing an aggregate key are delivered in ID order.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "booking_outbox", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "status, nextAttemptAt, id"),
+        @Index(name = "idx_outbox_aggregate", columnList = "aggregateKey, status, id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private OutboxEventType type;
+
+    @Column(nullable = false, length = 100)
+    private String aggregateKey;
+
+    @Column(nullable = false, length = 100)
+    private String destination;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
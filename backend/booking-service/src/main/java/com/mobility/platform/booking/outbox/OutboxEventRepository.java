@@ -0,0 +1,52 @@
+package com.mobility.platform.booking.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Leases up to {@code limit} due events until {@code leaseUntil}. SKIP LOCKED lets several relays claim
+     * disjoint batches; an event is skipped while an older event of its aggregate is backing off or leased
+     * elsewhere, which keeps per-aggregate delivery in order.
+     */
+    @Query(value = "UPDATE booking_outbox SET attempts = attempts + 1, next_attempt_at = :leaseUntil " +
+            "WHERE id IN (SELECT o.id FROM booking_outbox o " +
+            "WHERE o.status = 'PENDING' AND o.next_attempt_at <= :now " +
+            "AND NOT EXISTS (SELECT 1 FROM booking_outbox p WHERE p.aggregate_key = o.aggregate_key " +
+            "AND p.status = 'PENDING' AND p.id < o.id AND p.next_attempt_at > :now) " +
+            "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *", nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("now") LocalDateTime now,
+                                 @Param("leaseUntil") LocalDateTime leaseUntil,
+                                 @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = :status, o.processedAt = :now WHERE o.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids,
+                      @Param("status") OutboxStatus status,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.nextAttemptAt = :nextAttemptAt, o.lastError = :error WHERE o.id = :id")
+    int scheduleRetry(@Param("id") Long id,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error);
+
+    /** Hands back leased events that were not attempted, without counting the lease as an attempt. */
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.nextAttemptAt = :now, o.attempts = o.attempts - 1 WHERE o.id IN :ids")
+    int release(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.status = :status AND o.processedAt < :before")
+    int deleteProcessedBefore(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,11 @@
+package com.mobility.platform.booking.outbox;
+
+/**
+ * Kinds of side effect the booking outbox can ship.
+ */
+public enum OutboxEventType {
+    /** PATCH /api/vehicles/{id}/status on vehicle-service; destination is the vehicle ID. */
+    VEHICLE_STATUS,
+    /** booking.* event on the mobility.events exchange; destination is the event type. */
+    BOOKING_EVENT
+}
@@ -0,0 +1,258 @@
+package com.mobility.platform.booking.outbox;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobility.platform.booking.client.VehicleClient;
+import com.mobility.platform.common.enums.VehicleStatus;
+import com.mobility.platform.common.event.EventPublisher;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ships {@link OutboxEvent}s written by booking transactions.
+ * <p>
+ * Each poll leases a batch in a short transaction, delivers it with no transaction or DB connection held, and
+ * then records the outcome. Failed events back off exponentially and block later events of the same aggregate
+ * until they succeed or are given up after {@code booking.outbox.max-attempts}. When a batch holds several
+ * status changes for one vehicle only the last is sent, since vehicle status is last-write-wins; the earlier
+ * ones are marked sent only once it is delivered. The remaining status changes go to vehicle-service in one
+ * batched call.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final TypeReference<HashMap<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final VehicleClient vehicleClient;
+    private final EventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseSeconds;
+    private final long retentionHours;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       VehicleClient vehicleClient,
+                       EventPublisher eventPublisher,
+                       ObjectMapper objectMapper,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${booking.outbox.batch-size:100}") int batchSize,
+                       @Value("${booking.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${booking.outbox.lease-seconds:60}") long leaseSeconds,
+                       @Value("${booking.outbox.retention-hours:72}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.vehicleClient = vehicleClient;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseSeconds = leaseSeconds;
+        this.retentionHours = retentionHours;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:500}")
+    public void relay() {
+        List<OutboxEvent> batch;
+        do {
+            batch = claim();
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+        } while (batch.size() >= batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        Integer purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteProcessedBefore(OutboxStatus.SENT, before));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} delivered outbox events", purged);
+        }
+    }
+
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> claimed = transactionTemplate.execute(status ->
+                outboxEventRepository.claimBatch(now, now.plusSeconds(leaseSeconds), batchSize));
+        if (claimed == null) {
+            return List.of();
+        }
+        List<OutboxEvent> ordered = new ArrayList<>(claimed);
+        ordered.sort(Comparator.comparing(OutboxEvent::getId));
+        return ordered;
+    }
+
+    private void deliver(List<OutboxEvent> batch) {
+        Map<String, List<OutboxEvent>> vehicleStatusChains = new LinkedHashMap<>();
+        List<Long> sent = new ArrayList<>();
+        List<Long> deferred = new ArrayList<>();
+        Set<String> blocked = new HashSet<>();
+        for (OutboxEvent event : batch) {
+            if (blocked.contains(event.getAggregateKey())) {
+                deferred.add(event.getId());
+                continue;
+            }
+            if (event.getType() == OutboxEventType.VEHICLE_STATUS) {
+                vehicleStatusChains.computeIfAbsent(event.getAggregateKey(), key -> new ArrayList<>()).add(event);
+                continue;
+            }
+            try {
+                dispatch(event);
+                sent.add(event.getId());
+            } catch (Exception e) {
+                blocked.add(event.getAggregateKey());
+                recordFailure(event, e);
+            }
+        }
+        sent.addAll(dispatchVehicleStatuses(vehicleStatusChains.values()));
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboxEventRepository.markProcessed(sent, OutboxStatus.SENT, now);
+            }
+            if (!deferred.isEmpty()) {
+                outboxEventRepository.release(deferred, now);
+            }
+        });
+        log.debug("Outbox batch delivered: {} sent, {} deferred, {} failed",
+                sent.size(), deferred.size(), batch.size() - sent.size() - deferred.size());
+    }
+
+    private void dispatch(OutboxEvent event) throws Exception {
+        HashMap<String, Object> payload = objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+        switch (event.getType()) {
+            case VEHICLE_STATUS -> vehicleClient.updateVehicleStatus(
+                    Long.valueOf(event.getDestination()),
+                    VehicleStatus.valueOf(payload.get("status").toString()),
+                    payload.get("expectedStatus") != null
+                            ? VehicleStatus.valueOf(payload.get("expectedStatus").toString()) : null);
+            case BOOKING_EVENT -> eventPublisher.publishBookingEvent(event.getDestination(), payload);
+        }
+    }
+
+    /**
+     * Sends the vehicle status changes of a batch in one {@code PATCH /status/batch} call. A chain of changes to
+     * one vehicle is sent as one compare-and-set from the first change's expected status to the last change's
+     * status. If the call fails the same updates are retried one by one, so a single bad event only holds back
+     * its own vehicle. A chain succeeds or fails as a whole: its earlier events stay pending with the last one,
+     * so a retry rebuilds the same compare-and-set rather than guarding the last change with its own expected
+     * status, which a vehicle that never received the earlier changes would reject.
+     */
+    private List<Long> dispatchVehicleStatuses(Collection<List<OutboxEvent>> chains) {
+        if (chains.isEmpty()) {
+            return List.of();
+        }
+        Map<List<OutboxEvent>, Map<String, Object>> updates = new LinkedHashMap<>();
+        List<Long> sent = new ArrayList<>();
+        for (List<OutboxEvent> chain : chains) {
+            try {
+                updates.put(chain, chainUpdate(chain));
+            } catch (Exception e) {
+                recordFailure(chain, e);
+            }
+        }
+        if (updates.isEmpty()) {
+            return sent;
+        }
+        try {
+            vehicleClient.updateVehicleStatuses(Map.of("updates", new ArrayList<>(updates.values())));
+            updates.keySet().forEach(chain -> chain.forEach(event -> sent.add(event.getId())));
+            return sent;
+        } catch (Exception e) {
+            log.warn("Batched vehicle status update for {} vehicles failed, falling back to single updates: {}",
+                    updates.size(), e.getMessage());
+        }
+        for (Map.Entry<List<OutboxEvent>, Map<String, Object>> entry : updates.entrySet()) {
+            Map<String, Object> update = entry.getValue();
+            try {
+                vehicleClient.updateVehicleStatus(
+                        (Long) update.get("vehicleId"),
+                        VehicleStatus.valueOf(update.get("status").toString()),
+                        update.get("expectedStatus") != null
+                                ? VehicleStatus.valueOf(update.get("expectedStatus").toString()) : null);
+                entry.getKey().forEach(event -> sent.add(event.getId()));
+            } catch (Exception e) {
+                recordFailure(entry.getKey(), e);
+            }
+        }
+        return sent;
+    }
+
+    /** Builds the compare-and-set for a chain: the last event's status, guarded by the first event's expected status. */
+    private Map<String, Object> chainUpdate(List<OutboxEvent> chain) throws Exception {
+        OutboxEvent first = chain.get(0);
+        OutboxEvent last = chain.get(chain.size() - 1);
+        HashMap<String, Object> payload = objectMapper.readValue(last.getPayload(), PAYLOAD_TYPE);
+        HashMap<String, Object> firstPayload = objectMapper.readValue(first.getPayload(), PAYLOAD_TYPE);
+        Map<String, Object> update = new HashMap<>();
+        update.put("vehicleId", Long.valueOf(last.getDestination()));
+        update.put("status", payload.get("status"));
+        if (firstPayload.get("expectedStatus") != null) {
+            update.put("expectedStatus", firstPayload.get("expectedStatus"));
+        }
+        return update;
+    }
+
+    private void recordFailure(OutboxEvent event, Exception e) {
+        recordFailure(List.of(event), e);
+    }
+
+    /**
+     * Backs off or gives up the events together. Attempts are counted from the most-tried event, so a chain is
+     * never split by giving up its earlier events alone.
+     */
+    private void recordFailure(List<OutboxEvent> events, Exception e) {
+        OutboxEvent event = events.get(events.size() - 1);
+        List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+        String error = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+        // A rejected request (e.g. STATUS_CONFLICT: the vehicle has already moved on) will not succeed on retry
+        boolean rejected = e instanceof FeignException feignException
+                && feignException.status() >= 400 && feignException.status() < 500;
+        int attempts = rejected ? maxAttempts : events.stream().mapToInt(OutboxEvent::getAttempts).max().orElse(0);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (attempts >= maxAttempts) {
+                events.forEach(failed -> outboxEventRepository.scheduleRetry(failed.getId(), failed.getNextAttemptAt(), error));
+                outboxEventRepository.markProcessed(ids, OutboxStatus.FAILED, LocalDateTime.now());
+            } else {
+                long backoffSeconds = Math.min(300L, 1L << Math.min(attempts, 9));
+                LocalDateTime retryAt = LocalDateTime.now().plusSeconds(backoffSeconds);
+                events.forEach(failed -> outboxEventRepository.scheduleRetry(failed.getId(), retryAt, error));
+            }
+        });
+        if (rejected) {
+            log.warn("Outbox events {} ({} {}) were rejected and will not be retried: {}",
+                    ids, event.getType(), event.getDestination(), error);
+        } else if (attempts >= maxAttempts) {
+            log.error("Giving up on outbox events {} ({} {}) after {} attempts: {}",
+                    ids, event.getType(), event.getDestination(), attempts, error);
+        } else {
+            log.warn("Outbox events {} ({} {}) failed on attempt {}: {}",
+                    ids, event.getType(), event.getDestination(), attempts, error);
+        }
+    }
+
+    private String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,67 @@
+package com.mobility.platform.booking.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobility.platform.common.enums.VehicleStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records booking side effects in the caller's transaction. Nothing leaves the service until that
+ * transaction commits; {@link OutboxRelay} then ships the events.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Queues a vehicle status change that vehicle-service applies only while the vehicle is still in
+     * {@code expectedStatus} (null: unconditionally), so a late change cannot undo a newer one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueVehicleStatus(Long vehicleId, VehicleStatus status, VehicleStatus expectedStatus) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("status", status.name());
+        if (expectedStatus != null) {
+            payload.put("expectedStatus", expectedStatus.name());
+        }
+        enqueue(OutboxEventType.VEHICLE_STATUS, "vehicle:" + vehicleId, vehicleId.toString(), payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueBookingEvent(String eventType, Map<String, Object> eventData) {
+        Object bookingId = eventData.get("bookingId");
+        enqueue(OutboxEventType.BOOKING_EVENT, "booking:" + bookingId, eventType, eventData);
+    }
+
+    private void enqueue(OutboxEventType type, String aggregateKey, String destination, Map<String, ?> payload) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAggregateKey(aggregateKey);
+        event.setDestination(destination);
+        event.setPayload(toJson(payload));
+        event.setStatus(OutboxStatus.PENDING);
+        event.setAttempts(0);
+        event.setNextAttemptAt(now);
+        event.setCreatedAt(now);
+        outboxEventRepository.save(event);
+    }
+
+    private String toJson(Map<String, ?> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+}
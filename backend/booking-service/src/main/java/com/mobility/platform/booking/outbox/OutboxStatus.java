@@ -0,0 +1,7 @@
+package com.mobility.platform.booking.outbox;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
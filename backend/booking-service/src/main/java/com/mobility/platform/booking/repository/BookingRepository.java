@@ -1,15 +1,23 @@
 package com.mobility.platform.booking.repository;
 
+import com.mobility.platform.booking.availability.BookingInterval;
+import com.mobility.platform.booking.dto.BookingSummary;
 import com.mobility.platform.booking.entity.Booking;
 import com.mobility.platform.common.enums.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Booking repository
@@ -28,6 +36,81 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     List<Booking> findByDriverId(Long driverId);
     
+    /*
+     * Keyset pagination over (createdAt DESC, id DESC); pass a PageRequest of page 0 to bound the result.
+     */
+    
+    @Query("SELECT b FROM Booking b WHERE b.userId = :userId ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findUserBookingsPage(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT b FROM Booking b WHERE b.userId = :userId " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findUserBookingsPageAfter(@Param("userId") Long userId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
+    @Query("SELECT b FROM Booking b WHERE b.vehicleId = :vehicleId ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findVehicleBookingsPage(@Param("vehicleId") Long vehicleId, Pageable pageable);
+    
+    @Query("SELECT b FROM Booking b WHERE b.vehicleId = :vehicleId " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findVehicleBookingsPageAfter(@Param("vehicleId") Long vehicleId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+    
+    /*
+     * Summary projections for list screens: same keyset order, only list-level columns.
+     */
+    
+    String BOOKING_SUMMARY_SELECT = "SELECT new com.mobility.platform.booking.dto.BookingSummary(" +
+            "b.id, b.bookingNumber, b.userId, b.vehicleId, b.status, b.startDateTime, b.endDateTime, " +
+            "b.withDriver, b.finalPrice, b.paymentCompleted, b.deliveryRequested, b.createdAt) FROM Booking b ";
+    
+    @Query(BOOKING_SUMMARY_SELECT + "WHERE b.userId = :userId ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findUserBookingSummaries(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(BOOKING_SUMMARY_SELECT + "WHERE b.userId = :userId " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findUserBookingSummariesAfter(@Param("userId") Long userId,
+                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+    
+    @Query(BOOKING_SUMMARY_SELECT + "WHERE b.vehicleId = :vehicleId ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findVehicleBookingSummaries(@Param("vehicleId") Long vehicleId, Pageable pageable);
+    
+    @Query(BOOKING_SUMMARY_SELECT + "WHERE b.vehicleId = :vehicleId " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findVehicleBookingSummariesAfter(@Param("vehicleId") Long vehicleId,
+                                                          @Param("createdAt") LocalDateTime createdAt,
+                                                          @Param("id") Long id,
+                                                          Pageable pageable);
+    
+    /*
+     * Full-history streams for NDJSON export. Must be consumed inside a read-only transaction so the
+     * PostgreSQL driver honours the fetch size and uses a server-side cursor.
+     */
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b WHERE b.userId = :userId ORDER BY b.createdAt DESC, b.id DESC")
+    Stream<Booking> streamByUserId(@Param("userId") Long userId);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b WHERE b.vehicleId = :vehicleId ORDER BY b.createdAt DESC, b.id DESC")
+    Stream<Booking> streamByVehicleId(@Param("vehicleId") Long vehicleId);
+    
     List<Booking> findByStatus(BookingStatus status);
     
     @Query("SELECT b FROM Booking b WHERE b.userId = :userId AND b.status = :status")
@@ -36,14 +119,55 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.vehicleId = :vehicleId AND b.status IN :statuses")
     List<Booking> findByVehicleIdAndStatusIn(@Param("vehicleId") Long vehicleId, @Param("statuses") List<BookingStatus> statuses);
     
+    /**
+     * CONFIRMED/ONGOING bookings of the vehicle overlapping the half-open window {@code [start, end)}, the same
+     * semantics as ex_booking_vehicle_no_overlap, so a booking may start exactly when the previous one ends.
+     */
     @Query("SELECT b FROM Booking b WHERE b.vehicleId = :vehicleId " +
             "AND b.status IN ('CONFIRMED', 'ONGOING') " +
-            "AND ((b.startDateTime <= :endDateTime AND b.endDateTime >= :startDateTime))")
+            "AND b.startDateTime < :endDateTime AND b.endDateTime > :startDateTime")
     List<Booking> findConflictingBookings(
             @Param("vehicleId") Long vehicleId,
             @Param("startDateTime") LocalDateTime startDateTime,
             @Param("endDateTime") LocalDateTime endDateTime);
     
+    /**
+     * Transaction-scoped PostgreSQL advisory lock on a vehicle. Serialises booking admission for that
+     * vehicle across all booking-service replicas until the surrounding transaction ends.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:vehicleId)", nativeQuery = true)
+    Integer lockVehicle(@Param("vehicleId") Long vehicleId);
+    
+    /** Distinct vehicles held by a CONFIRMED/ONGOING booking overlapping the window; served by idx_booking_window. */
+    @Query("SELECT DISTINCT b.vehicleId FROM Booking b " +
+            "WHERE b.status IN ('CONFIRMED', 'ONGOING') " +
+            "AND b.startDateTime < :endDateTime AND b.endDateTime > :startDateTime")
+    List<Long> findBookedVehicleIds(
+            @Param("startDateTime") LocalDateTime startDateTime,
+            @Param("endDateTime") LocalDateTime endDateTime);
+    
+    @Query("SELECT DISTINCT b.vehicleId FROM Booking b " +
+            "WHERE b.vehicleId IN :vehicleIds AND b.status IN ('CONFIRMED', 'ONGOING') " +
+            "AND b.startDateTime < :endDateTime AND b.endDateTime > :startDateTime")
+    List<Long> findBookedVehicleIdsAmong(
+            @Param("vehicleIds") Collection<Long> vehicleIds,
+            @Param("startDateTime") LocalDateTime startDateTime,
+            @Param("endDateTime") LocalDateTime endDateTime);
+    
+    /** Time windows of CONFIRMED/ONGOING bookings ending after the given instant (availability index warm-up). */
+    @Query("SELECT new com.mobility.platform.booking.availability.BookingInterval(" +
+            "b.id, b.vehicleId, b.startDateTime, b.endDateTime) FROM Booking b " +
+            "WHERE b.status IN ('CONFIRMED', 'ONGOING') AND b.endDateTime > :from")
+    List<BookingInterval> findActiveIntervals(@Param("from") LocalDateTime from);
+    
+    @Query("SELECT new com.mobility.platform.booking.availability.BookingInterval(" +
+            "b.id, b.vehicleId, b.startDateTime, b.endDateTime) FROM Booking b " +
+            "WHERE b.vehicleId IN :vehicleIds AND b.status IN ('CONFIRMED', 'ONGOING') " +
+            "AND b.startDateTime < :to AND b.endDateTime > :from")
+    List<BookingInterval> findActiveIntervalsForVehicles(@Param("vehicleIds") Collection<Long> vehicleIds,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to);
+    
     @Query("SELECT b FROM Booking b WHERE b.userId = :userId " +
             "ORDER BY b.startDateTime DESC")
     List<Booking> findUserBookingHistory(@Param("userId") Long userId);
@@ -61,20 +185,37 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "AND b.actualStartDateTime IS NULL")
     List<Booking> findBookingsToStart(@Param("now") LocalDateTime now);
     
-    @Query("SELECT b FROM Booking b WHERE b.endDateTime <= :now " +
-            "AND b.status = 'ONGOING' " +
-            "AND b.actualEndDateTime IS NULL")
-    List<Booking> findBookingsToComplete(@Param("now") LocalDateTime now);
-    
-    /** CONFIRMED bookings whose end time has passed (vehicle still BOOKED, should be released). */
-    @Query("SELECT b FROM Booking b WHERE b.endDateTime <= :now AND b.status = 'CONFIRMED'")
-    List<Booking> findExpiredConfirmedBookings(@Param("now") LocalDateTime now);
-    
-    /** PENDING bookings whose end time has passed (vehicle still BOOKED, should be released). */
-    @Query("SELECT b FROM Booking b WHERE b.endDateTime <= :now AND b.status = 'PENDING'")
-    List<Booking> findExpiredPendingBookings(@Param("now") LocalDateTime now);
+    /*
+     * Bulk expiry. Each statement moves at most :limit rows and returns them; SKIP LOCKED lets parallel
+     * workers and other replicas take disjoint chunks. version is bumped so concurrent optimistic writers fail.
+     */
+    
+    String EXPIRED_BOOKING_COLUMNS = "RETURNING id, vehicle_id AS \"vehicleId\", booking_number AS \"bookingNumber\", " +
+            "start_date_time AS \"startDateTime\", end_date_time AS \"endDateTime\"";
+    
+    /** Auto-completes ONGOING bookings whose end time has passed. */
+    @Query(value = "UPDATE bookings SET status = 'COMPLETED', actual_end_date_time = :now, " +
+            "updated_at = :now, version = version + 1 " +
+            "WHERE id IN (SELECT id FROM bookings WHERE status = 'ONGOING' AND end_date_time <= :now " +
+            "AND actual_end_date_time IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            EXPIRED_BOOKING_COLUMNS, nativeQuery = true)
+    List<ExpiredBooking> completeExpiredOngoing(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    /** Cancels bookings in the given status whose end time has passed. */
+    @Query(value = "UPDATE bookings SET status = 'CANCELLED', cancellation_reason = :reason, cancelled_at = :now, " +
+            "updated_at = :now, version = version + 1 " +
+            "WHERE id IN (SELECT id FROM bookings WHERE status = :status AND end_date_time <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            EXPIRED_BOOKING_COLUMNS, nativeQuery = true)
+    List<ExpiredBooking> cancelExpired(@Param("status") String status,
+                                       @Param("reason") String reason,
+                                       @Param("now") LocalDateTime now,
+                                       @Param("limit") int limit);
     
     Optional<Booking> findByPaymentTransactionId(String paymentTransactionId);
+    
+    @Query("SELECT b.id FROM Booking b WHERE b.idempotencyKey = :idempotencyKey")
+    Optional<Long> findIdByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
 }
 
 
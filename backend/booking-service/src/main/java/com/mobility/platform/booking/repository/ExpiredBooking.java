@@ -0,0 +1,19 @@
+package com.mobility.platform.booking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row returned by the bulk expiry updates in {@link BookingRepository}.
+ */
+public interface ExpiredBooking {
+
+    Long getId();
+
+    Long getVehicleId();
+
+    String getBookingNumber();
+
+    LocalDateTime getStartDateTime();
+
+    LocalDateTime getEndDateTime();
+}
@@ -1,6 +1,6 @@
 package com.mobility.platform.booking.scheduler;
 
-import com.mobility.platform.booking.service.BookingService;
+import com.mobility.platform.booking.service.BookingExpiryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -15,13 +15,13 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class BookingExpiryScheduler {
 
-    private final BookingService bookingService;
+    private final BookingExpiryService bookingExpiryService;
 
-    /** Run every minute to process expired bookings and release vehicles. */
-    @Scheduled(fixedRate = 60000)
+    /** Runs a minute after the previous pass finished, so a large backlog never overlaps itself. */
+    @Scheduled(fixedDelayString = "${booking.expiry.interval-ms:60000}")
     public void processExpiredBookings() {
         try {
-            bookingService.processExpiredBookings();
+            bookingExpiryService.processExpiredBookings();
         } catch (Exception e) {
             log.error("Error in booking expiry scheduler", e);
         }
@@ -0,0 +1,37 @@
+package com.mobility.platform.booking.service;
+
+import com.mobility.platform.common.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in a booking history ordered by (createdAt DESC, id DESC), exchanged with clients as an
+ * opaque URL-safe string.
+ */
+@Getter
+@AllArgsConstructor
+class BookingCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static BookingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new BookingCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Invalid pagination cursor", "INVALID_CURSOR");
+        }
+    }
+}
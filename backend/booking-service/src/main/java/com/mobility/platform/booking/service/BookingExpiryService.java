@@ -0,0 +1,129 @@
+package com.mobility.platform.booking.service;
+
+import com.mobility.platform.booking.availability.BookingAvailabilityChangedEvent;
+import com.mobility.platform.booking.availability.BookingInterval;
+import com.mobility.platform.booking.outbox.OutboxService;
+import com.mobility.platform.booking.repository.BookingRepository;
+import com.mobility.platform.booking.repository.ExpiredBooking;
+import com.mobility.platform.common.enums.BookingStatus;
+import com.mobility.platform.common.enums.VehicleStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Set-based booking expiry: auto-completes ONGOING bookings past their end time and cancels CONFIRMED/PENDING
+ * bookings that ended without being started, releasing their vehicles.
+ * <p>
+ * Each chunk is one bulk {@code UPDATE ... RETURNING} plus its outbox rows in a single short transaction.
+ * Several workers drain each stage in parallel, and because chunks are claimed with SKIP LOCKED every replica
+ * can run the job without coordination.
+ */
+@Slf4j
+@Service
+public class BookingExpiryService {
+
+    private final BookingRepository bookingRepository;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor expiryExecutor;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public BookingExpiryService(BookingRepository bookingRepository,
+                                OutboxService outboxService,
+                                ApplicationEventPublisher applicationEventPublisher,
+                                TransactionTemplate transactionTemplate,
+                                ThreadPoolTaskExecutor expiryExecutor,
+                                @Value("${booking.expiry.chunk-size:200}") int chunkSize,
+                                @Value("${booking.expiry.parallelism:2}") int parallelism) {
+        this.bookingRepository = bookingRepository;
+        this.outboxService = outboxService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.expiryExecutor = expiryExecutor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    private enum Stage {
+        COMPLETE_ONGOING,
+        EXPIRE_CONFIRMED,
+        EXPIRE_PENDING
+    }
+
+    /** Drains every stage and returns the number of bookings moved. */
+    public int processExpiredBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (Stage stage : Stage.values()) {
+            int processed = drain(stage, now);
+            if (processed > 0) {
+                log.info("Booking expiry {}: {} bookings processed", stage, processed);
+            }
+            total += processed;
+        }
+        return total;
+    }
+
+    private int drain(Stage stage, LocalDateTime now) {
+        List<CompletableFuture<Integer>> workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(CompletableFuture.supplyAsync(() -> {
+                int processed = 0;
+                int chunk;
+                do {
+                    chunk = processChunk(stage, now);
+                    processed += chunk;
+                } while (chunk == chunkSize);
+                return processed;
+            }, expiryExecutor));
+        }
+        return workers.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    private int processChunk(Stage stage, LocalDateTime now) {
+        Integer processed = transactionTemplate.execute(status -> {
+            List<ExpiredBooking> rows = switch (stage) {
+                case COMPLETE_ONGOING -> bookingRepository.completeExpiredOngoing(now, chunkSize);
+                case EXPIRE_CONFIRMED -> bookingRepository.cancelExpired(BookingStatus.CONFIRMED.name(),
+                        "Expired - rental period ended without start", now, chunkSize);
+                case EXPIRE_PENDING -> bookingRepository.cancelExpired(BookingStatus.PENDING.name(),
+                        "Expired - rental period ended", now, chunkSize);
+            };
+
+            Set<Long> releasedVehicles = new LinkedHashSet<>();
+            for (ExpiredBooking row : rows) {
+                releasedVehicles.add(row.getVehicleId());
+                if (stage != Stage.EXPIRE_PENDING) {
+                    applicationEventPublisher.publishEvent(BookingAvailabilityChangedEvent.released(new BookingInterval(
+                            row.getId(), row.getVehicleId(), row.getStartDateTime(), row.getEndDateTime())));
+                }
+                if (stage == Stage.COMPLETE_ONGOING) {
+                    Map<String, Object> eventData = new HashMap<>();
+                    eventData.put("bookingId", row.getId());
+                    eventData.put("bookingNumber", row.getBookingNumber());
+                    outboxService.enqueueBookingEvent("completed", eventData);
+                }
+            }
+            VehicleStatus heldStatus = stage == Stage.COMPLETE_ONGOING ? VehicleStatus.IN_USE : VehicleStatus.BOOKED;
+            releasedVehicles.forEach(vehicleId ->
+                    outboxService.enqueueVehicleStatus(vehicleId, VehicleStatus.AVAILABLE, heldStatus));
+            return rows.size();
+        });
+        return processed != null ? processed : 0;
+    }
+}
@@ -0,0 +1,267 @@
+package com.mobility.platform.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobility.platform.booking.dto.BookingRequest;
+import com.mobility.platform.booking.dto.BookingResponse;
+import com.mobility.platform.booking.repository.BookingRepository;
+import com.mobility.platform.common.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Idempotency-Key handling for booking creation.
+ * <p>
+ * Duplicates arriving at this instance while the first request is still running wait on the same future.
+ * Across instances an in-progress marker is claimed in Redis with SET NX, and the finished response is stored
+ * under the key for {@code booking.idempotency.ttl-seconds}, so a retry costs one Redis lookup. A key replayed
+ * with a different request body is rejected. Failed attempts are not remembered, so the client may retry them.
+ * <p>
+ * Redis is only the fast path: the key is also written to the booking row in the booking's own transaction
+ * (unique {@code idempotency_key}), so a retry whose Redis record is missing, expired or never stored replays
+ * the booking from the database, and a concurrent duplicate fails on the constraint and replays it too. Redis
+ * calls use the short {@code spring.data.redis.timeout}; after a failure Redis is skipped for
+ * {@code booking.idempotency.redis-backoff-seconds} and requests go straight to the database check. Fingerprints
+ * live only in Redis, so a reused key with a different body is not detected once its Redis record is gone.
+ */
+@Slf4j
+@Service
+public class BookingIdempotencyService {
+
+    private static final String KEY_PREFIX = "booking:idempotency:";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final Duration resultTtl;
+    private final Duration inProgressTtl;
+    private final long redisBackoffMillis;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private volatile long redisSuspendedUntil;
+
+    public BookingIdempotencyService(StringRedisTemplate redisTemplate,
+                                     ObjectMapper objectMapper,
+                                     BookingRepository bookingRepository,
+                                     BookingService bookingService,
+                                     @Value("${booking.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                                     @Value("${booking.idempotency.in-progress-ttl-seconds:60}") long inProgressTtlSeconds,
+                                     @Value("${booking.idempotency.redis-backoff-seconds:30}") long redisBackoffSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.resultTtl = Duration.ofSeconds(ttlSeconds);
+        this.inProgressTtl = Duration.ofSeconds(inProgressTtlSeconds);
+        this.redisBackoffMillis = Duration.ofSeconds(redisBackoffSeconds).toMillis();
+    }
+
+    /**
+     * Runs {@code action} at most once per (user, Idempotency-Key). The action receives the scoped key and must
+     * store it on the booking it creates, in the same transaction.
+     */
+    public BookingResponse execute(String idempotencyKey, BookingRequest request,
+                                   Function<String, BookingResponse> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters",
+                    "INVALID_IDEMPOTENCY_KEY");
+        }
+        String key = request.getUserId() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            requireSameRequest(existing.fingerprint, fingerprint);
+            return await(existing.future);
+        }
+
+        try {
+            BookingResponse response = runOnce(key, fingerprint, action);
+            mine.future.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private BookingResponse runOnce(String key, String fingerprint, Function<String, BookingResponse> action) {
+        IdempotencyRecord stored = read(key);
+        if (stored != null) {
+            requireSameRequest(stored.getFingerprint(), fingerprint);
+            if (stored.getResponse() != null) {
+                log.info("Replaying stored booking response for idempotency key {}", key);
+                return stored.getResponse();
+            }
+            // The marker outlives a first attempt whose response could not be stored
+            BookingResponse created = findCreated(key, fingerprint);
+            if (created != null) {
+                return created;
+            }
+            throw new BusinessException("A request with this Idempotency-Key is still being processed",
+                    "IDEMPOTENCY_IN_PROGRESS");
+        }
+        BookingResponse created = findCreated(key, fingerprint);
+        if (created != null) {
+            return created;
+        }
+        if (!claim(key, fingerprint)) {
+            // Another instance claimed the key between our read and write
+            throw new BusinessException("A request with this Idempotency-Key is still being processed",
+                    "IDEMPOTENCY_IN_PROGRESS");
+        }
+
+        BookingResponse response;
+        try {
+            response = action.apply(key);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request that bypassed Redis committed the key first
+            created = findCreated(key, fingerprint);
+            if (created == null) {
+                release(key);
+                throw e;
+            }
+            return created;
+        } catch (RuntimeException e) {
+            release(key);
+            throw e;
+        }
+        store(key, new IdempotencyRecord(fingerprint, response));
+        return response;
+    }
+
+    /** The booking already created with this key, if any; re-seeds the Redis record for later retries. */
+    private BookingResponse findCreated(String key, String fingerprint) {
+        Long bookingId = bookingRepository.findIdByIdempotencyKey(key).orElse(null);
+        if (bookingId == null) {
+            return null;
+        }
+        log.info("Replaying booking {} recorded for idempotency key {}", bookingId, key);
+        BookingResponse response = bookingService.getBookingById(bookingId);
+        store(key, new IdempotencyRecord(fingerprint, response));
+        return response;
+    }
+
+    private IdempotencyRecord read(String key) {
+        if (redisSuspended()) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            return json != null ? objectMapper.readValue(json, IdempotencyRecord.class) : null;
+        } catch (Exception e) {
+            redisFailed("Idempotency lookup", key, e);
+            return null;
+        }
+    }
+
+    /** Returns false only when another request holds the key; Redis errors fall through as claimed. */
+    private boolean claim(String key, String fingerprint) {
+        if (redisSuspended()) {
+            return true;
+        }
+        try {
+            String marker = objectMapper.writeValueAsString(new IdempotencyRecord(fingerprint, null));
+            return !Boolean.FALSE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, marker, inProgressTtl));
+        } catch (Exception e) {
+            redisFailed("Idempotency claim", key, e);
+            return true;
+        }
+    }
+
+    private void store(String key, IdempotencyRecord record) {
+        if (redisSuspended()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, objectMapper.writeValueAsString(record), resultTtl);
+        } catch (Exception e) {
+            // The booking row still carries the key, so a retry replays it from the database
+            redisFailed("Storing idempotent booking response", key, e);
+        }
+    }
+
+    private void release(String key) {
+        if (redisSuspended()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(KEY_PREFIX + key);
+        } catch (Exception e) {
+            redisFailed("Idempotency release", key, e);
+        }
+    }
+
+    private boolean redisSuspended() {
+        return System.currentTimeMillis() < redisSuspendedUntil;
+    }
+
+    private void redisFailed(String operation, String key, Exception e) {
+        redisSuspendedUntil = System.currentTimeMillis() + redisBackoffMillis;
+        log.warn("{} failed for {}, using the database only for {} ms: {}",
+                operation, key, redisBackoffMillis, e.getMessage());
+    }
+
+    private BookingResponse await(CompletableFuture<BookingResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void requireSameRequest(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new BusinessException("Idempotency-Key was already used with a different request",
+                    "IDEMPOTENCY_KEY_REUSED");
+        }
+    }
+
+    private String fingerprint(BookingRequest request) {
+        try {
+            byte[] body = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint booking request", e);
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class InFlight {
+        private final String fingerprint;
+        private final CompletableFuture<BookingResponse> future;
+    }
+
+    /** Value stored in Redis; {@code response} is null while the first request is still running. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class IdempotencyRecord {
+        private String fingerprint;
+        private BookingResponse response;
+    }
+}
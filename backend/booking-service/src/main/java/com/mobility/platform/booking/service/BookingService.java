@@ -1,32 +1,53 @@
 package com.mobility.platform.booking.service;
 
+import com.mobility.platform.booking.availability.AvailabilityCalendar;
+import com.mobility.platform.booking.availability.BookingAvailabilityChangedEvent;
+import com.mobility.platform.booking.availability.BookingAvailabilityIndex;
+import com.mobility.platform.booking.cache.ReferenceDataCache;
+import com.mobility.platform.booking.client.ForkedLookup;
 import com.mobility.platform.booking.client.PricingClient;
-import com.mobility.platform.booking.client.UserClient;
-import com.mobility.platform.booking.client.VehicleClient;
 import com.mobility.platform.booking.dto.BookingRequest;
 import com.mobility.platform.booking.dto.BookingResponse;
+import com.mobility.platform.booking.dto.BookingSummary;
+import com.mobility.platform.booking.dto.VehicleAvailabilityResponse;
 import com.mobility.platform.booking.entity.Booking;
+import com.mobility.platform.booking.outbox.OutboxService;
 import com.mobility.platform.booking.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mobility.platform.common.dto.ApiResponse;
+import com.mobility.platform.common.dto.PageResponse;
 import com.mobility.platform.common.enums.BookingStatus;
 import com.mobility.platform.common.enums.VehicleStatus;
-import com.mobility.platform.common.event.EventPublisher;
 import com.mobility.platform.common.exception.BusinessException;
 import com.mobility.platform.common.exception.ResourceNotFoundException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Booking service implementation
@@ -36,15 +57,38 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookingService {
     
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_CHUNK_SIZE = 200;
+    private static final int MAX_AVAILABILITY_VEHICLES = 500;
+    private static final int MAX_BOOKED_CHECK_VEHICLES = 1000;
+    
     private final BookingRepository bookingRepository;
-    private final VehicleClient vehicleClient;
-    private final UserClient userClient;
+    private final ReferenceDataCache referenceDataCache;
     private final PricingClient pricingClient;
-    private final EventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final BookingAdmissionControl admissionControl;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
     private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor enrichmentExecutor;
     
-    @Transactional
+    /**
+     * Creates a PENDING booking. Pricing and delivery lookups run before any DB work; the conflict check and
+     * insert then run in a short transaction under the vehicle's admission lock.
+     */
     public BookingResponse createBooking(BookingRequest request) {
+        return createBooking(request, null);
+    }
+    
+    /**
+     * As {@link #createBooking(BookingRequest)}, recording {@code idempotencyKey} on the booking in the same
+     * transaction; a second booking with the same key fails on the unique constraint.
+     */
+    public BookingResponse createBooking(BookingRequest request, String idempotencyKey) {
         log.info("Creating new booking for user {} and vehicle {}", request.getUserId(), request.getVehicleId());
         
         // Validate dates
@@ -52,15 +96,8 @@ public class BookingService {
             throw new BusinessException("End date/time must be after start date/time", "INVALID_DATE_RANGE");
         }
         
-        // Check for conflicting bookings
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-                request.getVehicleId(),
-                request.getStartDateTime(),
-                request.getEndDateTime());
-        
-        if (!conflicts.isEmpty()) {
-            throw new BusinessException("Vehicle is not available for the selected time period", "VEHICLE_NOT_AVAILABLE");
-        }
+        // Fail fast on conflicting bookings before pricing; re-checked under the admission lock below
+        ensureVehicleAvailable(request.getVehicleId(), null, request.getStartDateTime(), request.getEndDateTime());
         
         // Calculate price (use provided price from frontend if available, otherwise calculate)
         BigDecimal vehiclePrice = request.getVehiclePrice();
@@ -86,8 +123,9 @@ public class BookingService {
         boolean deliveryRequested = Boolean.TRUE.equals(request.getDeliveryRequested());
         BigDecimal deliveryFee = null;
         Double deliveryDistanceKm = null;
+        Map<String, Object> vehicleData = null;
         if (deliveryRequested) {
-            Map<String, Object> vehicleData = fetchVehicleData(request.getVehicleId());
+            vehicleData = fetchVehicleData(request.getVehicleId());
             if (!Boolean.TRUE.equals(vehicleData.get("deliveryAvailable"))) {
                 throw new BusinessException(
                         "این خودرو امکان تحویل در محل را ندارد.",
@@ -150,28 +188,38 @@ public class BookingService {
         booking.setDeliveryRequested(deliveryRequested);
         booking.setDeliveryFee(deliveryFee);
         booking.setDeliveryDistanceKm(deliveryDistanceKm);
+        booking.setIdempotencyKey(idempotencyKey);
         
-        booking = bookingRepository.save(booking);
+        // Resolved before the admission lock and transaction; delivery bookings reuse the lookup above
+        Map<String, Object> demand = demandAttributes(
+                request.getVehicleId(), request.getPickupLatitude(), request.getPickupLongitude(), vehicleData);
+        Booking saved = admissionControl.withVehicleLock(request.getVehicleId(), () ->
+                transactionTemplate.execute(status -> admitBooking(booking, demand)));
         
-        // Update vehicle status
-        try {
-            vehicleClient.updateVehicleStatus(request.getVehicleId(), VehicleStatus.BOOKED);
-        } catch (Exception e) {
-            log.error("Failed to update vehicle status", e);
-        }
+        log.info("Booking created successfully with ID: {}", saved.getId());
         
-        // Publish booking created event
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("bookingId", booking.getId());
-        eventData.put("bookingNumber", booking.getBookingNumber());
-        eventData.put("userId", booking.getUserId());
-        eventData.put("vehicleId", booking.getVehicleId());
-        eventData.put("withDriver", booking.getWithDriver());
-        eventPublisher.publishBookingEvent("created", eventData);
+        return mapToResponse(saved);
+    }
+    
+    private Booking admitBooking(Booking booking, Map<String, Object> demand) {
+        bookingRepository.lockVehicle(booking.getVehicleId());
+        ensureVehicleAvailable(booking.getVehicleId(), null, booking.getStartDateTime(), booking.getEndDateTime());
         
-        log.info("Booking created successfully with ID: {}", booking.getId());
+        Booking saved = bookingRepository.save(booking);
         
-        return mapToResponse(booking);
+        outboxService.enqueueVehicleStatus(saved.getVehicleId(), VehicleStatus.BOOKED, VehicleStatus.AVAILABLE);
+        
+        // Publish booking created event
+        Map<String, Object> eventData = new HashMap<>();
+        eventData.put("bookingId", saved.getId());
+        eventData.put("bookingNumber", saved.getBookingNumber());
+        eventData.put("userId", saved.getUserId());
+        eventData.put("vehicleId", saved.getVehicleId());
+        eventData.put("withDriver", saved.getWithDriver());
+        eventData.putAll(demand);
+        outboxService.enqueueBookingEvent("created", eventData);
+        
+        return saved;
     }
     
     public BookingResponse getBookingById(Long id) {
@@ -191,268 +239,403 @@ public class BookingService {
     public List<BookingResponse> getUserBookings(Long userId) {
         log.info("Fetching bookings for user: {}", userId);
         List<Booking> bookings = bookingRepository.findByUserId(userId);
-        return bookings.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(bookings);
     }
     
     public List<BookingResponse> getVehicleBookings(Long vehicleId) {
         log.info("Fetching bookings for vehicle: {}", vehicleId);
         List<Booking> bookings = bookingRepository.findByVehicleIdOrderByCreatedAtDesc(vehicleId);
-        return bookings.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(bookings);
+    }
+    
+    /** One keyset page of a user's bookings, newest first. */
+    public PageResponse<BookingResponse> getUserBookingsPage(Long userId, String cursor, int size) {
+        int pageSize = normalizePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Booking> bookings;
+        if (cursor == null || cursor.isBlank()) {
+            bookings = bookingRepository.findUserBookingsPage(userId, limit);
+        } else {
+            BookingCursor position = BookingCursor.decode(cursor);
+            bookings = bookingRepository.findUserBookingsPageAfter(userId, position.getCreatedAt(), position.getId(), limit);
+        }
+        return toKeysetPage(bookings, pageSize, cursor == null || cursor.isBlank());
+    }
+    
+    /** One keyset page of a vehicle's bookings, newest first. */
+    public PageResponse<BookingResponse> getVehicleBookingsPage(Long vehicleId, String cursor, int size) {
+        int pageSize = normalizePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Booking> bookings;
+        if (cursor == null || cursor.isBlank()) {
+            bookings = bookingRepository.findVehicleBookingsPage(vehicleId, limit);
+        } else {
+            BookingCursor position = BookingCursor.decode(cursor);
+            bookings = bookingRepository.findVehicleBookingsPageAfter(vehicleId, position.getCreatedAt(), position.getId(), limit);
+        }
+        return toKeysetPage(bookings, pageSize, cursor == null || cursor.isBlank());
+    }
+    
+    /**
+     * Writes a user's whole booking history as NDJSON. Rows are read through a server-side cursor and
+     * enriched, written and detached in chunks, so memory use does not grow with history length.
+     */
+    @Transactional(readOnly = true)
+    public void exportUserBookings(Long userId, OutputStream out) throws IOException {
+        try (Stream<Booking> bookings = bookingRepository.streamByUserId(userId)) {
+            writeNdjson(bookings, out);
+        }
+    }
+    
+    /** Writes a vehicle's whole booking history as NDJSON; see {@link #exportUserBookings}. */
+    @Transactional(readOnly = true)
+    public void exportVehicleBookings(Long vehicleId, OutputStream out) throws IOException {
+        try (Stream<Booking> bookings = bookingRepository.streamByVehicleId(vehicleId)) {
+            writeNdjson(bookings, out);
+        }
+    }
+    
+    private int normalizePageSize(int size) {
+        if (size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+    
+    /** List-level summaries of a user's bookings, keyset-paginated like {@link #getUserBookingsPage}. */
+    public PageResponse<BookingSummary> getUserBookingSummaries(Long userId, String cursor, int size) {
+        int pageSize = normalizePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<BookingSummary> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = bookingRepository.findUserBookingSummaries(userId, limit);
+        } else {
+            BookingCursor position = BookingCursor.decode(cursor);
+            summaries = bookingRepository.findUserBookingSummariesAfter(userId, position.getCreatedAt(), position.getId(), limit);
+        }
+        return toKeysetPage(summaries, pageSize, cursor == null || cursor.isBlank(),
+                s -> new BookingCursor(s.getCreatedAt(), s.getId()), this::enrichSummaries);
+    }
+    
+    /** List-level summaries of a vehicle's bookings, keyset-paginated like {@link #getVehicleBookingsPage}. */
+    public PageResponse<BookingSummary> getVehicleBookingSummaries(Long vehicleId, String cursor, int size) {
+        int pageSize = normalizePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<BookingSummary> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = bookingRepository.findVehicleBookingSummaries(vehicleId, limit);
+        } else {
+            BookingCursor position = BookingCursor.decode(cursor);
+            summaries = bookingRepository.findVehicleBookingSummariesAfter(vehicleId, position.getCreatedAt(), position.getId(), limit);
+        }
+        return toKeysetPage(summaries, pageSize, cursor == null || cursor.isBlank(),
+                s -> new BookingCursor(s.getCreatedAt(), s.getId()), this::enrichSummaries);
+    }
+    
+    private PageResponse<BookingResponse> toKeysetPage(List<Booking> bookings, int pageSize, boolean first) {
+        return toKeysetPage(bookings, pageSize, first,
+                b -> new BookingCursor(b.getCreatedAt(), b.getId()), this::mapToResponses);
+    }
+    
+    /** Trims the look-ahead row fetched to detect a next page and derives the cursor from the last row kept. */
+    private <T, R> PageResponse<R> toKeysetPage(List<T> rows, int pageSize, boolean first,
+                                               Function<T, BookingCursor> cursorOf,
+                                               Function<List<T>, List<R>> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return PageResponse.<R>builder()
+                .content(mapper.apply(page))
+                .pageSize(pageSize)
+                .totalElements(-1)
+                .totalPages(-1)
+                .first(first)
+                .last(!hasMore)
+                .empty(page.isEmpty())
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    private void writeNdjson(Stream<Booking> bookings, OutputStream out) throws IOException {
+        List<Booking> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        Iterator<Booking> iterator = bookings.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                for (BookingResponse response : mapToResponses(chunk)) {
+                    out.write(objectMapper.writeValueAsBytes(response));
+                    out.write('\n');
+                }
+                out.flush();
+                chunk.forEach(entityManager::detach);
+                chunk.clear();
+            }
+        }
+    }
+    
+    /** The subset of {@code vehicleIds} that has a CONFIRMED/ONGOING booking overlapping the window. */
+    public List<Long> findBookedVehicleIdsAmong(List<Long> vehicleIds, LocalDateTime startDateTime,
+                                                LocalDateTime endDateTime) {
+        Set<Long> candidates = new HashSet<>(vehicleIds);
+        if (candidates.size() > MAX_BOOKED_CHECK_VEHICLES) {
+            throw new BusinessException("At most " + MAX_BOOKED_CHECK_VEHICLES + " vehicles per availability check",
+                    "BATCH_TOO_LARGE");
+        }
+        candidates.remove(null);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        return availabilityIndex.findBookedVehicleIds(startDateTime, endDateTime)
+                .map(booked -> booked.stream().filter(candidates::contains).toList())
+                .orElseGet(() -> bookingRepository.findBookedVehicleIdsAmong(candidates, startDateTime, endDateTime));
+    }
+    
+    public List<VehicleAvailabilityResponse> getAvailability(List<Long> vehicleIds,
+                                                             LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new BusinessException("End time must be after start time", "INVALID_WINDOW");
+        }
+        List<Long> distinctIds = vehicleIds.stream().filter(id -> id != null).distinct().toList();
+        if (distinctIds.size() > MAX_AVAILABILITY_VEHICLES) {
+            throw new BusinessException("At most " + MAX_AVAILABILITY_VEHICLES + " vehicles per availability request",
+                    "BATCH_TOO_LARGE");
+        }
+        return availabilityCalendar.getAvailability(distinctIds, from, to);
     }
     
     public List<Long> getBookedVehicleIds(LocalDateTime startDateTime, LocalDateTime endDateTime) {
         log.info("Fetching booked vehicle IDs for time range: {} to {}", startDateTime, endDateTime);
         
-        // Get all bookings that overlap with the requested time range
-        // We need to find bookings where:
-        // - Booking status is CONFIRMED or ONGOING
-        // - Booking time overlaps with requested range
-        List<Booking> bookings = bookingRepository.findAll().stream()
-                .filter(b -> b.getStatus() == BookingStatus.CONFIRMED || b.getStatus() == BookingStatus.ONGOING)
-                .filter(b -> b.getStartDateTime().isBefore(endDateTime) && b.getEndDateTime().isAfter(startDateTime))
-                .collect(Collectors.toList());
-        
-        // Extract unique vehicle IDs
-        return bookings.stream()
-                .map(Booking::getVehicleId)
-                .distinct()
-                .collect(Collectors.toList());
+        // Served from the in-memory interval index; falls back to the indexed range query
+        // when the index is not loaded yet or the window starts before its horizon.
+        return availabilityIndex.findBookedVehicleIds(startDateTime, endDateTime)
+                .orElseGet(() -> bookingRepository.findBookedVehicleIds(startDateTime, endDateTime));
     }
     
-    @Transactional
+    /**
+     * Confirms a PENDING booking. This is the transition that makes a booking hold its vehicle, so the overlap
+     * check is repeated under the vehicle's admission lock and the database exclusion constraint backs it up.
+     */
     public BookingResponse confirmBooking(Long id) {
         log.info("Confirming booking: {}", id);
         
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
+        Long vehicleId = bookingRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id))
+                .getVehicleId();
         
-        if (booking.getStatus() != BookingStatus.PENDING) {
-            throw new BusinessException("Only pending bookings can be confirmed", "INVALID_STATUS");
-        }
-        
-        booking.setStatus(BookingStatus.CONFIRMED);
-        booking = bookingRepository.save(booking);
-        
-        // Publish booking confirmed event
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("bookingId", booking.getId());
-        eventData.put("bookingNumber", booking.getBookingNumber());
-        eventPublisher.publishBookingEvent("confirmed", eventData);
+        Booking booking = admissionControl.withVehicleLock(vehicleId, () ->
+                transactionTemplate.execute(status -> {
+                    bookingRepository.lockVehicle(vehicleId);
+                    Booking current = bookingRepository.findById(id)
+                            .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
+                    
+                    if (current.getStatus() != BookingStatus.PENDING) {
+                        throw new BusinessException("Only pending bookings can be confirmed", "INVALID_STATUS");
+                    }
+                    ensureVehicleAvailable(vehicleId, current.getId(), current.getStartDateTime(), current.getEndDateTime());
+                    
+                    current.setStatus(BookingStatus.CONFIRMED);
+                    Booking saved = saveAdmitted(current);
+                    applicationEventPublisher.publishEvent(BookingAvailabilityChangedEvent.occupied(saved));
+                    
+                    // Publish booking confirmed event
+                    Map<String, Object> eventData = new HashMap<>();
+                    eventData.put("bookingId", saved.getId());
+                    eventData.put("bookingNumber", saved.getBookingNumber());
+                    outboxService.enqueueBookingEvent("confirmed", eventData);
+                    return saved;
+                }));
         
         log.info("Booking confirmed successfully: {}", id);
         
         return mapToResponse(booking);
     }
     
-    @Transactional
-    public BookingResponse startBooking(Long id) {
-        log.info("Starting booking: {}", id);
-        
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
-        
-        if (booking.getStatus() != BookingStatus.CONFIRMED) {
-            throw new BusinessException("Only confirmed bookings can be started", "INVALID_STATUS");
+    /**
+     * Confirms a PENDING booking once its payment has been verified, under the same admission lock as
+     * {@link #confirmBooking}. The booking is re-read after the lock is taken, so concurrent verifications of one
+     * payment confirm it once; a booking that is already confirmed and paid is returned as is.
+     */
+    public Booking confirmPaidBooking(Long id) {
+        Long vehicleId = bookingRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id))
+                .getVehicleId();
+        
+        return admissionControl.withVehicleLock(vehicleId, () ->
+                transactionTemplate.execute(status -> {
+                    bookingRepository.lockVehicle(vehicleId);
+                    Booking current = bookingRepository.findById(id)
+                            .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
+                    
+                    if (current.getStatus() == BookingStatus.CONFIRMED && Boolean.TRUE.equals(current.getPaymentCompleted())) {
+                        log.info("Booking {} is already confirmed, skipping update", id);
+                        return current;
+                    }
+                    if (current.getStatus() != BookingStatus.PENDING) {
+                        log.info("Booking {} is in status {}, not updating", id, current.getStatus());
+                        return current;
+                    }
+                    ensureVehicleAvailable(vehicleId, current.getId(), current.getStartDateTime(), current.getEndDateTime());
+                    
+                    current.setStatus(BookingStatus.CONFIRMED);
+                    current.setPaymentCompleted(true);
+                    Booking saved = saveAdmitted(current);
+                    applicationEventPublisher.publishEvent(BookingAvailabilityChangedEvent.occupied(saved));
+                    log.info("Booking {} confirmed after successful payment verification", id);
+                    return saved;
+                }));
+    }
+    
+    /** Throws VEHICLE_NOT_AVAILABLE when a booking other than {@code bookingId} holds the window. */
+    private void ensureVehicleAvailable(Long vehicleId, Long bookingId, LocalDateTime startDateTime,
+                                        LocalDateTime endDateTime) {
+        if (bookingRepository.findConflictingBookings(vehicleId, startDateTime, endDateTime).stream()
+                .anyMatch(conflict -> !conflict.getId().equals(bookingId))) {
+            throw new BusinessException("Vehicle is not available for the selected time period", "VEHICLE_NOT_AVAILABLE");
         }
-        
-        booking.setStatus(BookingStatus.ONGOING);
-        booking.setActualStartDateTime(LocalDateTime.now());
-        booking = bookingRepository.save(booking);
-        
-        // Update vehicle status
+    }
+    
+    /** Flushes immediately so an exclusion-constraint violation surfaces as VEHICLE_NOT_AVAILABLE. */
+    private Booking saveAdmitted(Booking booking) {
         try {
-            vehicleClient.updateVehicleStatus(booking.getVehicleId(), VehicleStatus.IN_USE);
-        } catch (Exception e) {
-            log.error("Failed to update vehicle status", e);
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (String.valueOf(e.getMostSpecificCause().getMessage()).contains("ex_booking_vehicle_no_overlap")) {
+                throw new BusinessException("Vehicle is not available for the selected time period", "VEHICLE_NOT_AVAILABLE");
+            }
+            throw e;
         }
+    }
+    
+    /** Starts a CONFIRMED booking; the response is enriched after the transaction commits. */
+    public BookingResponse startBooking(Long id) {
+        log.info("Starting booking: {}", id);
+        
+        Booking booking = transactionTemplate.execute(status -> {
+            Booking current = bookingRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
+            
+            if (current.getStatus() != BookingStatus.CONFIRMED) {
+                throw new BusinessException("Only confirmed bookings can be started", "INVALID_STATUS");
+            }
+            
+            current.setStatus(BookingStatus.ONGOING);
+            current.setActualStartDateTime(LocalDateTime.now());
+            Booking saved = bookingRepository.save(current);
+            
+            outboxService.enqueueVehicleStatus(saved.getVehicleId(), VehicleStatus.IN_USE, VehicleStatus.BOOKED);
+            return saved;
+        });
         
         log.info("Booking started successfully: {}", id);
         
         return mapToResponse(booking);
     }
     
-    @Transactional
+    /** Completes an ONGOING booking; the response is enriched after the transaction commits. */
     public BookingResponse completeBooking(Long id) {
         log.info("Completing booking: {}", id);
         
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
-        
-        if (booking.getStatus() != BookingStatus.ONGOING) {
-            throw new BusinessException("Only ongoing bookings can be completed", "INVALID_STATUS");
-        }
-        
-        booking.setStatus(BookingStatus.COMPLETED);
-        booking.setActualEndDateTime(LocalDateTime.now());
-        booking = bookingRepository.save(booking);
-        
-        // Update vehicle status
-        try {
-            vehicleClient.updateVehicleStatus(booking.getVehicleId(), VehicleStatus.AVAILABLE);
-        } catch (Exception e) {
-            log.error("Failed to update vehicle status", e);
-        }
-        
-        // Publish booking completed event
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("bookingId", booking.getId());
-        eventData.put("bookingNumber", booking.getBookingNumber());
-        eventPublisher.publishBookingEvent("completed", eventData);
+        Booking booking = transactionTemplate.execute(status -> {
+            Booking current = bookingRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
+            
+            if (current.getStatus() != BookingStatus.ONGOING) {
+                throw new BusinessException("Only ongoing bookings can be completed", "INVALID_STATUS");
+            }
+            
+            current.setStatus(BookingStatus.COMPLETED);
+            current.setActualEndDateTime(LocalDateTime.now());
+            Booking saved = bookingRepository.save(current);
+            applicationEventPublisher.publishEvent(BookingAvailabilityChangedEvent.released(saved));
+            
+            outboxService.enqueueVehicleStatus(saved.getVehicleId(), VehicleStatus.AVAILABLE, VehicleStatus.IN_USE);
+            
+            // Publish booking completed event
+            Map<String, Object> eventData = new HashMap<>();
+            eventData.put("bookingId", saved.getId());
+            eventData.put("bookingNumber", saved.getBookingNumber());
+            outboxService.enqueueBookingEvent("completed", eventData);
+            return saved;
+        });
         
         log.info("Booking completed successfully: {}", id);
         
         return mapToResponse(booking);
     }
     
-    /**
-     * Process expired bookings: auto-complete ONGOING past end time and release vehicles
-     * for CONFIRMED bookings that ended without being started. Called by scheduler.
-     */
-    public void processExpiredBookings() {
-        LocalDateTime now = LocalDateTime.now();
-        for (Booking b : bookingRepository.findBookingsToComplete(now)) {
-            try {
-                completeExpiredOngoingBooking(b.getId());
-            } catch (Exception e) {
-                log.error("Failed to auto-complete booking {}", b.getId(), e);
-            }
-        }
-        for (Booking b : bookingRepository.findExpiredConfirmedBookings(now)) {
-            try {
-                expireConfirmedBooking(b.getId());
-            } catch (Exception e) {
-                log.error("Failed to process expired confirmed booking {}", b.getId(), e);
-            }
-        }
-        for (Booking b : bookingRepository.findExpiredPendingBookings(now)) {
-            try {
-                expirePendingBooking(b.getId());
-            } catch (Exception e) {
-                log.error("Failed to expire pending booking {}", b.getId(), e);
-            }
-        }
-    }
-    
-    @Transactional
-    public void completeExpiredOngoingBooking(Long id) {
-        Booking booking = bookingRepository.findById(id).orElse(null);
-        if (booking == null || booking.getStatus() != BookingStatus.ONGOING) return;
-        booking.setStatus(BookingStatus.COMPLETED);
-        booking.setActualEndDateTime(LocalDateTime.now());
-        booking = bookingRepository.save(booking);
-        try {
-            vehicleClient.updateVehicleStatus(booking.getVehicleId(), VehicleStatus.AVAILABLE);
-        } catch (Exception e) {
-            log.error("Failed to update vehicle status for booking {}", id, e);
-        }
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("bookingId", booking.getId());
-        eventData.put("bookingNumber", booking.getBookingNumber());
-        eventPublisher.publishBookingEvent("completed", eventData);
-        log.info("Auto-completed expired booking: {}", id);
-    }
-
-    @Transactional
-    public void expireConfirmedBooking(Long id) {
-        Booking booking = bookingRepository.findById(id).orElse(null);
-        if (booking == null || booking.getStatus() != BookingStatus.CONFIRMED) return;
-        booking.setStatus(BookingStatus.CANCELLED);
-        booking.setCancellationReason("Expired - rental period ended without start");
-        booking.setCancelledAt(LocalDateTime.now());
-        booking = bookingRepository.save(booking);
-        try {
-            vehicleClient.updateVehicleStatus(booking.getVehicleId(), VehicleStatus.AVAILABLE);
-        } catch (Exception e) {
-            log.error("Failed to update vehicle status for booking {}", id, e);
-        }
-        log.info("Expired confirmed booking and released vehicle: {}", id);
-    }
-    
-    @Transactional
-    public void expirePendingBooking(Long id) {
-        Booking booking = bookingRepository.findById(id).orElse(null);
-        if (booking == null || booking.getStatus() != BookingStatus.PENDING) return;
-        booking.setStatus(BookingStatus.CANCELLED);
-        booking.setCancellationReason("Expired - rental period ended");
-        booking.setCancelledAt(LocalDateTime.now());
-        booking = bookingRepository.save(booking);
-        try {
-            vehicleClient.updateVehicleStatus(booking.getVehicleId(), VehicleStatus.AVAILABLE);
-        } catch (Exception e) {
-            log.error("Failed to update vehicle status for booking {}", id, e);
-        }
-        log.info("Expired pending booking and released vehicle: {}", id);
-    }
-    
     /**
      * Correct a CANCELLED booking to COMPLETED when it was paid and the rental period has ended.
      * Use for fixing bookings that were wrongly auto-cancelled by processExpiredBookings.
      */
-    @Transactional
     public BookingResponse correctPaidExpiredBookingToCompleted(Long id) {
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
-        if (booking.getStatus() != BookingStatus.CANCELLED) {
-            throw new BusinessException("Only cancelled bookings can be corrected to completed", "INVALID_STATUS");
-        }
-        if (!Boolean.TRUE.equals(booking.getPaymentCompleted())) {
-            throw new BusinessException("Only paid bookings can be corrected to completed", "BOOKING_NOT_PAID");
-        }
-        if (booking.getEndDateTime().isAfter(LocalDateTime.now())) {
-            throw new BusinessException("Rental period has not ended yet", "RENTAL_NOT_ENDED");
-        }
-        booking.setStatus(BookingStatus.COMPLETED);
-        booking.setActualStartDateTime(booking.getStartDateTime());
-        booking.setActualEndDateTime(booking.getEndDateTime());
-        booking.setCancellationReason(null);
-        booking.setCancelledAt(null);
-        booking = bookingRepository.save(booking);
-        try {
-            vehicleClient.updateVehicleStatus(booking.getVehicleId(), VehicleStatus.AVAILABLE);
-        } catch (Exception e) {
-            log.error("Failed to update vehicle status for booking {}", id, e);
-        }
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("bookingId", booking.getId());
-        eventData.put("bookingNumber", booking.getBookingNumber());
-        eventPublisher.publishBookingEvent("completed", eventData);
+        Booking booking = transactionTemplate.execute(status -> {
+            Booking current = bookingRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
+            if (current.getStatus() != BookingStatus.CANCELLED) {
+                throw new BusinessException("Only cancelled bookings can be corrected to completed", "INVALID_STATUS");
+            }
+            if (!Boolean.TRUE.equals(current.getPaymentCompleted())) {
+                throw new BusinessException("Only paid bookings can be corrected to completed", "BOOKING_NOT_PAID");
+            }
+            if (current.getEndDateTime().isAfter(LocalDateTime.now())) {
+                throw new BusinessException("Rental period has not ended yet", "RENTAL_NOT_ENDED");
+            }
+            current.setStatus(BookingStatus.COMPLETED);
+            current.setActualStartDateTime(current.getStartDateTime());
+            current.setActualEndDateTime(current.getEndDateTime());
+            current.setCancellationReason(null);
+            current.setCancelledAt(null);
+            Booking saved = bookingRepository.save(current);
+            outboxService.enqueueVehicleStatus(saved.getVehicleId(), VehicleStatus.AVAILABLE, null);
+            Map<String, Object> eventData = new HashMap<>();
+            eventData.put("bookingId", saved.getId());
+            eventData.put("bookingNumber", saved.getBookingNumber());
+            outboxService.enqueueBookingEvent("completed", eventData);
+            return saved;
+        });
         log.info("Corrected cancelled paid booking to completed: {}", id);
         return mapToResponse(booking);
     }
 
-    @Transactional
+    /**
+     * Cancels a booking that has not completed. The demand attributes for its event are resolved before the
+     * transaction, since a near-cache miss is a call to vehicle-service.
+     */
     public BookingResponse cancelBooking(Long id, String reason) {
         log.info("Cancelling booking: {}", id);
         
-        Booking booking = bookingRepository.findById(id)
+        Booking existing = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
-        
-        if (booking.getStatus() == BookingStatus.COMPLETED || booking.getStatus() == BookingStatus.CANCELLED) {
-            throw new BusinessException("Cannot cancel completed or already cancelled bookings", "INVALID_STATUS");
-        }
-        
-        booking.setStatus(BookingStatus.CANCELLED);
-        booking.setCancellationReason(reason);
-        booking.setCancelledAt(LocalDateTime.now());
-        booking = bookingRepository.save(booking);
-        
-        // Update vehicle status
-        try {
-            vehicleClient.updateVehicleStatus(booking.getVehicleId(), VehicleStatus.AVAILABLE);
-        } catch (Exception e) {
-            log.error("Failed to update vehicle status", e);
-        }
-        
-        // Publish booking cancelled event
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("bookingId", booking.getId());
-        eventData.put("bookingNumber", booking.getBookingNumber());
-        eventData.put("reason", reason);
-        eventPublisher.publishBookingEvent("cancelled", eventData);
+        Map<String, Object> demand = demandAttributes(
+                existing.getVehicleId(), existing.getPickupLatitude(), existing.getPickupLongitude(), null);
+        
+        Booking booking = transactionTemplate.execute(status -> {
+            Booking current = bookingRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
+            
+            if (current.getStatus() == BookingStatus.COMPLETED || current.getStatus() == BookingStatus.CANCELLED) {
+                throw new BusinessException("Cannot cancel completed or already cancelled bookings", "INVALID_STATUS");
+            }
+            VehicleStatus heldStatus = current.getStatus() == BookingStatus.ONGOING ? VehicleStatus.IN_USE : VehicleStatus.BOOKED;
+            
+            current.setStatus(BookingStatus.CANCELLED);
+            current.setCancellationReason(reason);
+            current.setCancelledAt(LocalDateTime.now());
+            Booking saved = bookingRepository.save(current);
+            applicationEventPublisher.publishEvent(BookingAvailabilityChangedEvent.released(saved));
+            
+            outboxService.enqueueVehicleStatus(saved.getVehicleId(), VehicleStatus.AVAILABLE, heldStatus);
+            
+            // Publish booking cancelled event
+            Map<String, Object> eventData = new HashMap<>();
+            eventData.put("bookingId", saved.getId());
+            eventData.put("bookingNumber", saved.getBookingNumber());
+            eventData.put("reason", reason);
+            eventData.putAll(demand);
+            outboxService.enqueueBookingEvent("cancelled", eventData);
+            return saved;
+        });
         
         log.info("Booking cancelled successfully: {}", id);
         
@@ -475,20 +658,38 @@ public class BookingService {
         return "BK-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
-    @SuppressWarnings("unchecked")
     private Map<String, Object> fetchVehicleData(Long vehicleId) {
-        try {
-            ApiResponse<Object> response = vehicleClient.getVehicleById(vehicleId);
-            if (response == null || response.getData() == null) {
-                throw new BusinessException("اطلاعات خودرو در دسترس نیست.", "VEHICLE_FETCH_FAILED");
-            }
-            return objectMapper.convertValue(response.getData(), Map.class);
-        } catch (BusinessException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Failed to fetch vehicle {} from vehicle-service", vehicleId, e);
+        Map<String, Object> vehicleData = referenceDataCache.getVehicle(vehicleId);
+        if (vehicleData == null) {
             throw new BusinessException("اطلاعات خودرو در دسترس نیست.", "VEHICLE_FETCH_FAILED");
         }
+        return vehicleData;
+    }
+
+    /**
+     * Vehicle type and position (the pickup point, else the vehicle's last known location) carried on booking
+     * events so pricing-service can attribute demand; empty when the vehicle cannot be looked up. Reuses
+     * {@code vehicleData} when the caller already has it. Must be called outside any transaction.
+     */
+    private Map<String, Object> demandAttributes(Long vehicleId, Double pickupLatitude, Double pickupLongitude,
+                                                 Map<String, Object> vehicleData) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (vehicleData == null) {
+            vehicleData = referenceDataCache.getVehicle(vehicleId);
+        }
+        if (vehicleData == null) {
+            return attributes;
+        }
+        if (vehicleData.get("vehicleType") != null) {
+            attributes.put("vehicleType", vehicleData.get("vehicleType").toString());
+        }
+        Double latitude = pickupLatitude != null ? pickupLatitude : toDouble(vehicleData.get("latitude"));
+        Double longitude = pickupLongitude != null ? pickupLongitude : toDouble(vehicleData.get("longitude"));
+        if (latitude != null && longitude != null) {
+            attributes.put("latitude", latitude);
+            attributes.put("longitude", longitude);
+        }
+        return attributes;
     }
 
     private Double toDouble(Object value) {
@@ -536,7 +737,7 @@ public class BookingService {
                 .setScale(0, java.math.RoundingMode.HALF_UP);
     }
     
-    private BookingResponse mapToResponse(Booking booking) {
+    private BookingResponse mapBaseResponse(Booking booking) {
         BookingResponse response = new BookingResponse();
         response.setId(booking.getId());
         response.setBookingNumber(booking.getBookingNumber());
@@ -572,52 +773,113 @@ public class BookingService {
         response.setDeliveryDistanceKm(booking.getDeliveryDistanceKm());
         response.setCreatedAt(booking.getCreatedAt());
         response.setUpdatedAt(booking.getUpdatedAt());
-        
-        // Fetch user (renter) information
-        try {
-            ApiResponse<Object> userResponse = userClient.getUserById(booking.getUserId());
-            if (userResponse != null && userResponse.getData() != null) {
-                Map<String, Object> userData = objectMapper.convertValue(userResponse.getData(), Map.class);
-                response.setUserFirstName((String) userData.get("firstName"));
-                response.setUserLastName((String) userData.get("lastName"));
-                response.setUserPhoneNumber((String) userData.get("phoneNumber"));
-                response.setUserEmail((String) userData.get("email"));
-            }
-        } catch (Exception e) {
-            log.warn("Failed to fetch user information for booking {}: {}", booking.getId(), e.getMessage());
-            // Don't fail the request if user info can't be fetched
-        }
-        
-        // Fetch owner information for confirmed bookings
-        if (booking.getStatus() == BookingStatus.CONFIRMED || 
-            booking.getStatus() == BookingStatus.ONGOING || 
-            booking.getStatus() == BookingStatus.COMPLETED) {
-            try {
-                // Get vehicle to find owner ID
-                ApiResponse<Object> vehicleResponse = vehicleClient.getVehicleById(booking.getVehicleId());
-                if (vehicleResponse != null && vehicleResponse.getData() != null) {
-                    Map<String, Object> vehicleData = objectMapper.convertValue(vehicleResponse.getData(), Map.class);
-                    Long ownerId = vehicleData.get("ownerId") != null ? 
-                        Long.valueOf(vehicleData.get("ownerId").toString()) : null;
-                    
-                    if (ownerId != null) {
-                        // Get owner information
-                        ApiResponse<Object> userResponse = userClient.getUserById(ownerId);
-                        if (userResponse != null && userResponse.getData() != null) {
-                            Map<String, Object> userData = objectMapper.convertValue(userResponse.getData(), Map.class);
-                            response.setOwnerFirstName((String) userData.get("firstName"));
-                            response.setOwnerLastName((String) userData.get("lastName"));
-                            response.setOwnerPhoneNumber((String) userData.get("phoneNumber"));
-                        }
+        return response;
+    }
+    
+    private BookingResponse mapToResponse(Booking booking) {
+        return mapToResponses(List.of(booking)).get(0);
+    }
+    
+    /** Maps bookings to responses enriched with renter and owner details (see {@link #enrichParties}). */
+    private List<BookingResponse> mapToResponses(List<Booking> bookings) {
+        List<BookingResponse> responses = new ArrayList<>(bookings.size());
+        bookings.forEach(booking -> responses.add(mapBaseResponse(booking)));
+        enrichParties(responses, BookingResponse::getUserId, BookingResponse::getVehicleId, BookingResponse::getStatus,
+                (response, renter, owner) -> {
+                    // User (renter) information
+                    if (renter != null) {
+                        response.setUserFirstName((String) renter.get("firstName"));
+                        response.setUserLastName((String) renter.get("lastName"));
+                        response.setUserPhoneNumber((String) renter.get("phoneNumber"));
+                        response.setUserEmail((String) renter.get("email"));
+                    }
+                    // Owner information for confirmed bookings
+                    if (owner != null) {
+                        response.setOwnerFirstName((String) owner.get("firstName"));
+                        response.setOwnerLastName((String) owner.get("lastName"));
+                        response.setOwnerPhoneNumber((String) owner.get("phoneNumber"));
                     }
+                });
+        return responses;
+    }
+    
+    /** Adds renter and owner names through {@link #enrichParties}. */
+    private List<BookingSummary> enrichSummaries(List<BookingSummary> summaries) {
+        enrichParties(summaries, BookingSummary::getUserId, BookingSummary::getVehicleId, BookingSummary::getStatus,
+                (summary, renter, owner) -> {
+                    if (renter != null) {
+                        summary.setUserFirstName((String) renter.get("firstName"));
+                        summary.setUserLastName((String) renter.get("lastName"));
+                    }
+                    if (owner != null) {
+                        summary.setOwnerFirstName((String) owner.get("firstName"));
+                        summary.setOwnerLastName((String) owner.get("lastName"));
+                    }
+                });
+        return summaries;
+    }
+    
+    /**
+     * Resolves the renter and, for confirmed/ongoing/completed rows, the vehicle owner of every row, independent of
+     * the number of rows. The renter batch lookup runs on the enrichment executor alongside the vehicle batch
+     * lookup (only made when some row shows owner details); owners, known only once the vehicles are, follow in a
+     * second user lookup that skips users already loaded as renters.
+     */
+    private <T> void enrichParties(List<T> rows, Function<T, Long> userIdOf, Function<T, Long> vehicleIdOf,
+                                   Function<T, BookingStatus> statusOf, PartyEnricher<T> enricher) {
+        Set<Long> renterIds = new HashSet<>();
+        rows.forEach(row -> renterIds.add(userIdOf.apply(row)));
+        Set<Long> ownerVehicleIds = rows.stream()
+                .filter(row -> includesOwnerDetails(statusOf.apply(row)))
+                .map(vehicleIdOf)
+                .collect(Collectors.toSet());
+        
+        Map<Long, Map<String, Object>> users;
+        Map<Long, Map<String, Object>> vehicles;
+        if (ownerVehicleIds.isEmpty()) {
+            users = referenceDataCache.getUsers(renterIds);
+            vehicles = Map.of();
+        } else {
+            ForkedLookup<Map<Long, Map<String, Object>>> renters =
+                    ForkedLookup.fork(() -> referenceDataCache.getUsers(renterIds), enrichmentExecutor);
+            vehicles = referenceDataCache.getVehicles(ownerVehicleIds);
+            users = new HashMap<>(renters.join());
+            Set<Long> ownerIds = new HashSet<>();
+            vehicles.values().forEach(v -> {
+                Long ownerId = toLong(v.get("ownerId"));
+                if (ownerId != null && !renterIds.contains(ownerId)) {
+                    ownerIds.add(ownerId);
                 }
-            } catch (Exception e) {
-                log.warn("Failed to fetch owner information for booking {}: {}", booking.getId(), e.getMessage());
-                // Don't fail the request if owner info can't be fetched
+            });
+            if (!ownerIds.isEmpty()) {
+                users.putAll(referenceDataCache.getUsers(ownerIds));
             }
         }
         
-        return response;
+        for (T row : rows) {
+            Map<String, Object> ownerData = null;
+            if (includesOwnerDetails(statusOf.apply(row))) {
+                Map<String, Object> vehicleData = vehicles.get(vehicleIdOf.apply(row));
+                Long ownerId = vehicleData != null ? toLong(vehicleData.get("ownerId")) : null;
+                ownerData = ownerId != null ? users.get(ownerId) : null;
+            }
+            enricher.enrich(row, users.get(userIdOf.apply(row)), ownerData);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface PartyEnricher<T> {
+        void enrich(T row, Map<String, Object> renter, Map<String, Object> owner);
+    }
+    
+    private boolean includesOwnerDetails(BookingStatus status) {
+        return status == BookingStatus.CONFIRMED ||
+                status == BookingStatus.ONGOING ||
+                status == BookingStatus.COMPLETED;
+    }
+    
+    private Long toLong(Object value) {
+        return value != null ? Long.valueOf(value.toString()) : null;
     }
 }
 
@@ -6,7 +6,6 @@ import com.mobility.platform.booking.dto.PaymentTransactionRequest;
 import com.mobility.platform.booking.dto.PaymentTransactionResponse;
 import com.mobility.platform.booking.entity.Booking;
 import com.mobility.platform.booking.repository.BookingRepository;
-import com.mobility.platform.common.enums.BookingStatus;
 import com.mobility.platform.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +22,7 @@ public class PaymentService {
     
     private final PaymentGatewayClient paymentGatewayClient;
     private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
     
     /**
      * Create a payment transaction
@@ -85,9 +85,10 @@ public class PaymentService {
     
     /**
      * Verify payment transaction and update booking status
-     * This method is idempotent - multiple calls with the same result won't cause errors
+     * This method is idempotent - multiple calls with the same result won't cause errors.
+     * The gateway is queried before any DB work; the confirmation itself runs under the vehicle's admission
+     * lock through {@link BookingService#confirmPaidBooking}.
      */
-    @Transactional
     public PaymentTransactionResponse verifyTransaction(String transactionId) {
         log.info("Verifying payment transaction: {}", transactionId);
         
@@ -101,33 +102,7 @@ public class PaymentService {
         // Update booking based on payment status
         String paymentStatus = transactionResponse.getStatus();
         if ("SUCCESS".equalsIgnoreCase(paymentStatus) || "COMPLETED".equalsIgnoreCase(paymentStatus)) {
-            // Check if booking is already confirmed (idempotent operation)
-            if (booking.getStatus() == BookingStatus.CONFIRMED && booking.getPaymentCompleted()) {
-                log.info("Booking {} is already confirmed, skipping update", booking.getId());
-            } else if (booking.getStatus() == BookingStatus.PENDING) {
-                // Only update if still pending
-                booking.setStatus(BookingStatus.CONFIRMED);
-                booking.setPaymentCompleted(true);
-                try {
-                    bookingRepository.save(booking);
-                    log.info("Booking {} confirmed after successful payment verification", booking.getId());
-                } catch (org.springframework.orm.ObjectOptimisticLockingFailureException e) {
-                    // Booking was updated by another transaction, refresh and check status
-                    log.warn("Concurrent update detected for booking {}, refreshing state", booking.getId());
-                    Booking refreshedBooking = bookingRepository.findById(booking.getId())
-                            .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", booking.getId()));
-                    
-                    // If already confirmed, that's fine (idempotent)
-                    if (refreshedBooking.getStatus() == BookingStatus.CONFIRMED && refreshedBooking.getPaymentCompleted()) {
-                        log.info("Booking {} was confirmed by another transaction", booking.getId());
-                    } else {
-                        // Re-throw if not yet confirmed - something else is wrong
-                        throw e;
-                    }
-                }
-            } else {
-                log.info("Booking {} is in status {}, not updating", booking.getId(), booking.getStatus());
-            }
+            bookingService.confirmPaidBooking(booking.getId());
         } else if ("FAILED".equalsIgnoreCase(paymentStatus) || "CANCELED".equalsIgnoreCase(paymentStatus)) {
             // Keep booking as PENDING if payment failed
             log.warn("Payment verification failed for booking {}: {}", booking.getId(), paymentStatus);
@@ -0,0 +1,88 @@
+package com.mobility.platform.booking.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ForkedLookupTest {
+
+    @Test
+    void runsOnExecutorConcurrentlyWithCaller() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch callerWorking = new CountDownLatch(1);
+            ForkedLookup<String> lookup = ForkedLookup.fork(() -> {
+                started.countDown();
+                await(callerWorking);
+                return Thread.currentThread().getName();
+            }, executor);
+
+            // The lookup is under way on the executor while the caller does its own work
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            callerWorking.countDown();
+
+            assertThat(lookup.join()).isNotEqualTo(Thread.currentThread().getName());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void callerRunsLookupStillQueuedBehindBusyPool() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release));
+            AtomicInteger runs = new AtomicInteger();
+            ForkedLookup<String> lookup = ForkedLookup.fork(() -> {
+                runs.incrementAndGet();
+                return Thread.currentThread().getName();
+            }, executor);
+
+            assertThat(lookup.join()).isEqualTo(Thread.currentThread().getName());
+
+            release.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(runs).hasValue(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectedLookupRunsOnJoin() {
+        ForkedLookup<Integer> lookup = ForkedLookup.fork(() -> 42, command -> {
+            throw new RejectedExecutionException("full");
+        });
+
+        assertThat(lookup.join()).isEqualTo(42);
+    }
+
+    @Test
+    void failurePropagatesToJoin() {
+        ForkedLookup<Integer> lookup = ForkedLookup.fork(() -> {
+            throw new IllegalStateException("down");
+        }, Runnable::run);
+
+        assertThatThrownBy(lookup::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
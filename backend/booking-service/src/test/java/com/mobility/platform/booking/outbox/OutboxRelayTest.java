@@ -0,0 +1,97 @@
+package com.mobility.platform.booking.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobility.platform.booking.client.VehicleClient;
+import com.mobility.platform.common.enums.VehicleStatus;
+import com.mobility.platform.common.event.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private static final long VEHICLE_ID = 42L;
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final VehicleClient vehicleClient = mock(VehicleClient.class);
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        relay = new OutboxRelay(repository, vehicleClient, mock(EventPublisher.class), new ObjectMapper(),
+                transactionTemplate, 100, 10, 60, 72);
+    }
+
+    @Test
+    void chainStaysPendingUntilItsCoalescedUpdateIsDelivered() {
+        OutboxEvent booked = statusEvent(1L, "BOOKED", "AVAILABLE");
+        OutboxEvent inUse = statusEvent(2L, "IN_USE", "BOOKED");
+        when(repository.claimBatch(any(), any(), anyInt())).thenAnswer(invocation -> List.of(booked, inUse));
+        when(vehicleClient.updateVehicleStatuses(any())).thenThrow(new RuntimeException("vehicle-service down"));
+        when(vehicleClient.updateVehicleStatus(any(), any(), any())).thenThrow(new RuntimeException("vehicle-service down"));
+
+        relay.relay();
+
+        verify(vehicleClient).updateVehicleStatus(VEHICLE_ID, VehicleStatus.IN_USE, VehicleStatus.AVAILABLE);
+        verify(repository, never()).markProcessed(anyList(), eq(OutboxStatus.SENT), any());
+        verify(repository).scheduleRetry(eq(1L), any(LocalDateTime.class), eq("vehicle-service down"));
+        verify(repository).scheduleRetry(eq(2L), any(LocalDateTime.class), eq("vehicle-service down"));
+    }
+
+    @Test
+    void retriedChainKeepsFirstExpectedStatus() {
+        OutboxEvent booked = statusEvent(1L, "BOOKED", "AVAILABLE");
+        OutboxEvent inUse = statusEvent(2L, "IN_USE", "BOOKED");
+        booked.setAttempts(3);
+        inUse.setAttempts(3);
+        when(repository.claimBatch(any(), any(), anyInt())).thenAnswer(invocation -> List.of(inUse, booked));
+
+        relay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> request = ArgumentCaptor.forClass(Map.class);
+        verify(vehicleClient).updateVehicleStatuses(request.capture());
+        assertThat(request.getValue().get("updates")).asList().containsExactly(
+                Map.of("vehicleId", VEHICLE_ID, "status", "IN_USE", "expectedStatus", "AVAILABLE"));
+        verify(repository).markProcessed(eq(List.of(1L, 2L)), eq(OutboxStatus.SENT), any(LocalDateTime.class));
+    }
+
+    private static OutboxEvent statusEvent(Long id, String status, String expectedStatus) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setType(OutboxEventType.VEHICLE_STATUS);
+        event.setAggregateKey("vehicle:" + VEHICLE_ID);
+        event.setDestination(String.valueOf(VEHICLE_ID));
+        event.setPayload("{\"status\":\"" + status + "\",\"expectedStatus\":\"" + expectedStatus + "\"}");
+        event.setStatus(OutboxStatus.PENDING);
+        event.setAttempts(1);
+        event.setNextAttemptAt(LocalDateTime.now());
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+}
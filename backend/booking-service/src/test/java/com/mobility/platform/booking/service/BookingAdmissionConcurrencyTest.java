@@ -0,0 +1,175 @@
+package com.mobility.platform.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobility.platform.booking.availability.AvailabilityCalendar;
+import com.mobility.platform.booking.availability.BookingAvailabilityIndex;
+import com.mobility.platform.booking.cache.ReferenceDataCache;
+import com.mobility.platform.booking.client.PricingClient;
+import com.mobility.platform.booking.entity.Booking;
+import com.mobility.platform.booking.outbox.OutboxService;
+import com.mobility.platform.booking.repository.BookingRepository;
+import com.mobility.platform.common.enums.BookingStatus;
+import com.mobility.platform.common.exception.BusinessException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Races many payment confirmations for one vehicle against an in-memory booking table. The repository stub
+ * widens the gap between the conflict check and the write, so only the admission lock keeps the vehicle from
+ * being confirmed twice.
+ */
+class BookingAdmissionConcurrencyTest {
+
+    private static final long VEHICLE_ID = 7L;
+    private static final int THREADS = 16;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 11, 2, 10, 0);
+
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(bookings.get(invocation.<Long>getArgument(0))));
+        when(bookingRepository.lockVehicle(anyLong())).thenReturn(1);
+        when(bookingRepository.findConflictingBookings(anyLong(), any(), any())).thenAnswer(invocation -> {
+            Long vehicleId = invocation.getArgument(0);
+            LocalDateTime start = invocation.getArgument(1);
+            LocalDateTime end = invocation.getArgument(2);
+            List<Booking> conflicts = bookings.values().stream()
+                    .filter(b -> b.getVehicleId().equals(vehicleId))
+                    .filter(b -> b.getStatus() == BookingStatus.CONFIRMED || b.getStatus() == BookingStatus.ONGOING)
+                    .filter(b -> b.getStartDateTime().isBefore(end) && b.getEndDateTime().isAfter(start))
+                    .toList();
+            Thread.sleep(2);
+            return conflicts;
+        });
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            bookings.put(booking.getId(), booking);
+            return booking;
+        });
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        bookingService = new BookingService(
+                bookingRepository,
+                mock(ReferenceDataCache.class),
+                mock(PricingClient.class),
+                mock(OutboxService.class),
+                mock(BookingAvailabilityIndex.class),
+                mock(AvailabilityCalendar.class),
+                mock(ApplicationEventPublisher.class),
+                new BookingAdmissionControl(256),
+                transactionTemplate,
+                mock(EntityManager.class),
+                new ObjectMapper(),
+                mock(ThreadPoolTaskExecutor.class));
+    }
+
+    @Test
+    void overlappingPaidBookingsHaveExactlyOneWinner() throws Exception {
+        for (long id = 1; id <= THREADS; id++) {
+            // Each booking overlaps all others by at least an hour
+            addPendingBooking(id, START.plusMinutes(id), START.plusHours(3).plusMinutes(id));
+        }
+
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = race(id -> {
+            try {
+                bookingService.confirmPaidBooking(id);
+            } catch (BusinessException e) {
+                assertThat(e.getErrorCode()).isEqualTo("VEHICLE_NOT_AVAILABLE");
+                rejected.incrementAndGet();
+            }
+        }, id -> id);
+
+        assertThat(unexpected).isEmpty();
+        assertThat(bookings.values()).filteredOn(b -> b.getStatus() == BookingStatus.CONFIRMED).hasSize(1);
+        assertThat(rejected).hasValue(THREADS - 1);
+    }
+
+    @Test
+    void repeatedVerificationOfOnePaymentConfirmsOnce() throws Exception {
+        addPendingBooking(1L, START, START.plusHours(2));
+
+        List<Throwable> unexpected = race(bookingService::confirmPaidBooking, id -> 1L);
+
+        assertThat(unexpected).isEmpty();
+        assertThat(bookings.get(1L).getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+        assertThat(bookings.get(1L).getPaymentCompleted()).isTrue();
+    }
+
+    private void addPendingBooking(Long id, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setBookingNumber("BK-" + id);
+        booking.setUserId(100L + id);
+        booking.setVehicleId(VEHICLE_ID);
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setStartDateTime(start);
+        booking.setEndDateTime(end);
+        booking.setPaymentCompleted(false);
+        bookings.put(id, booking);
+    }
+
+    /** Starts one task per thread at the same moment and returns whatever they threw. */
+    private List<Throwable> race(ThrowingConsumer task, LongUnaryOperator bookingIdOf)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (long thread = 1; thread <= THREADS; thread++) {
+            long bookingId = bookingIdOf.applyAsLong(thread);
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.accept(bookingId);
+                return null;
+            }));
+        }
+        start.countDown();
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<?> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                failures.add(e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        executor.shutdownNow();
+        return failures;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingConsumer {
+        void accept(Long bookingId) throws Exception;
+    }
+}
@@ -0,0 +1,234 @@
+package com.mobility.platform.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobility.platform.booking.availability.AvailabilityCalendar;
+import com.mobility.platform.booking.availability.BookingAvailabilityIndex;
+import com.mobility.platform.booking.cache.ReferenceDataCache;
+import com.mobility.platform.booking.client.PricingClient;
+import com.mobility.platform.booking.config.BookingSchemaInitializer;
+import com.mobility.platform.booking.dto.BookingRequest;
+import com.mobility.platform.booking.dto.BookingResponse;
+import com.mobility.platform.booking.entity.Booking;
+import com.mobility.platform.booking.outbox.OutboxEvent;
+import com.mobility.platform.booking.outbox.OutboxEventRepository;
+import com.mobility.platform.booking.outbox.OutboxService;
+import com.mobility.platform.booking.repository.BookingRepository;
+import com.mobility.platform.common.exception.BusinessException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Races a large number of overlapping booking creations and confirmations across several vehicles against a
+ * real PostgreSQL database, then checks that no two CONFIRMED/ONGOING bookings of a vehicle overlap.
+ * <p>
+ * Requests are spread over several BookingService instances, each with its own in-process admission lock, as
+ * separate replicas would be; only {@code pg_advisory_xact_lock} serialises them. One of them skips the advisory
+ * lock and the conflict query altogether, so only {@code ex_booking_vehicle_no_overlap} stops it.
+ * <p>
+ * Only runs when {@code BOOKING_TEST_DB_URL} (plus {@code BOOKING_TEST_DB_USERNAME}/{@code BOOKING_TEST_DB_PASSWORD})
+ * is set; it works in a scratch schema that is dropped afterwards. {@code BOOKING_TEST_REQUESTS} sets the number
+ * of requests (default 5,000).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.hikari.maximum-pool-size=40"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "BOOKING_TEST_DB_URL", matches = ".+")
+class BookingAdmissionPostgresTest {
+
+    private static final String SCHEMA = "booking_admission_test";
+    private static final int VEHICLES = 8;
+    private static final int REPLICAS = 4;
+    private static final int THREADS = 32;
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2026, 11, 2, 0, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<BookingService> replicas = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String url = System.getenv("BOOKING_TEST_DB_URL");
+        new JdbcTemplate(new DriverManagerDataSource(url,
+                System.getenv("BOOKING_TEST_DB_USERNAME"), System.getenv("BOOKING_TEST_DB_PASSWORD")))
+                .execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE; CREATE SCHEMA " + SCHEMA);
+        String separator = url.contains("?") ? "&" : "?";
+        registry.add("spring.datasource.url", () -> url + separator + "currentSchema=" + SCHEMA + ",public");
+        registry.add("spring.datasource.username", () -> System.getenv("BOOKING_TEST_DB_USERNAME"));
+        registry.add("spring.datasource.password", () -> System.getenv("BOOKING_TEST_DB_PASSWORD"));
+    }
+
+    @BeforeAll
+    void setUp() {
+        new BookingSchemaInitializer(jdbcTemplate).run();
+
+        for (int i = 0; i < REPLICAS; i++) {
+            replicas.add(replica(bookingRepository));
+        }
+        // A replica whose own checks are broken: the exclusion constraint is all that stands in its way
+        BookingRepository unguarded = mock(BookingRepository.class, delegatesTo(bookingRepository));
+        doReturn(1).when(unguarded).lockVehicle(anyLong());
+        doReturn(List.of()).when(unguarded).findConflictingBookings(anyLong(), any(), any());
+        replicas.add(replica(unguarded));
+    }
+
+    @AfterAll
+    void dropSchema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void overlappingRequestsNeverDoubleBookAVehicle() throws Exception {
+        int requests = Integer.parseInt(System.getenv().getOrDefault("BOOKING_TEST_REQUESTS", "5000"));
+        Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            long seed = i;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                // Windows on a half-hour grid within two days, so neighbours often touch end-to-start
+                LocalDateTime start = ORIGIN.plusMinutes(30L * random.nextInt(96));
+                LocalDateTime end = start.plusMinutes(30L * (1 + random.nextInt(12)));
+                long vehicleId = 1 + random.nextInt(VEHICLES);
+                String outcome = attempt(random, vehicleId, start, end);
+                outcomes.computeIfAbsent(outcome, key -> new AtomicInteger()).incrementAndGet();
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Integer overlaps = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM bookings a JOIN bookings b
+                  ON a.vehicle_id = b.vehicle_id AND a.id < b.id
+                 AND a.start_date_time < b.end_date_time AND b.start_date_time < a.end_date_time
+                WHERE a.status IN ('CONFIRMED', 'ONGOING') AND b.status IN ('CONFIRMED', 'ONGOING')
+                """, Integer.class);
+        assertThat(overlaps).as("overlapping CONFIRMED/ONGOING pairs, outcomes %s", outcomes).isZero();
+        assertThat(outcomes).containsKey("confirmed").doesNotContainKey("unexpected");
+        assertThat(outcomes.get("confirmed").get()).isEqualTo(countConfirmed());
+    }
+
+    /** Creates a booking on a random replica and confirms it (plainly or as paid) on another. */
+    private String attempt(Random random, long vehicleId, LocalDateTime start, LocalDateTime end) {
+        try {
+            BookingResponse created = replicas.get(random.nextInt(replicas.size()))
+                    .createBooking(request(vehicleId, start, end));
+            BookingService confirming = replicas.get(random.nextInt(replicas.size()));
+            if (random.nextBoolean()) {
+                confirming.confirmBooking(created.getId());
+            } else {
+                confirming.confirmPaidBooking(created.getId());
+            }
+            return "confirmed";
+        } catch (BusinessException e) {
+            return "VEHICLE_NOT_AVAILABLE".equals(e.getErrorCode()) ? "rejected" : "unexpected";
+        } catch (ConcurrencyFailureException e) {
+            // The unguarded replica can deadlock with a locked one on the constraint check; PostgreSQL aborts one
+            return "aborted";
+        } catch (Exception e) {
+            return "unexpected";
+        }
+    }
+
+    private int countConfirmed() {
+        Integer confirmed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE status = 'CONFIRMED'", Integer.class);
+        return confirmed != null ? confirmed : 0;
+    }
+
+    private BookingService replica(BookingRepository repository) {
+        return new BookingService(
+                repository,
+                mock(ReferenceDataCache.class),
+                mock(PricingClient.class),
+                new OutboxService(outboxEventRepository, new ObjectMapper()),
+                mock(BookingAvailabilityIndex.class),
+                mock(AvailabilityCalendar.class),
+                mock(ApplicationEventPublisher.class),
+                new BookingAdmissionControl(256),
+                transactionTemplate,
+                entityManager,
+                new ObjectMapper(),
+                mock(ThreadPoolTaskExecutor.class));
+    }
+
+    private static BookingRequest request(long vehicleId, LocalDateTime start, LocalDateTime end) {
+        BookingRequest request = new BookingRequest();
+        request.setUserId(1000 + vehicleId);
+        request.setVehicleId(vehicleId);
+        request.setStartDateTime(start);
+        request.setEndDateTime(end);
+        request.setWithDriver(false);
+        request.setTotalPrice(BigDecimal.valueOf(100));
+        return request;
+    }
+
+    @Configuration
+    @EnableJpaAuditing
+    @EntityScan(basePackageClasses = {Booking.class, OutboxEvent.class})
+    @EnableJpaRepositories(basePackageClasses = {BookingRepository.class, OutboxEventRepository.class})
+    static class Persistence {
+    }
+}
@@ -1,5 +1,6 @@
 package com.mobility.platform.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,6 +25,13 @@ public class PageResponse<T> {
     private boolean first;
     private boolean last;
     private boolean empty;
+    
+    /**
+     * Opaque cursor for the next page of a keyset-paginated listing; null on the last page and for
+     * offset-paginated listings. Keyset pages do not count rows, so totalElements/totalPages are -1.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 }
 
 
@@ -0,0 +1,27 @@
+package com.mobility.platform.common.geo;
+
+/**
+ * Fixed latitude/longitude grid shared by the services that aggregate demand by area, so a cell ID computed in
+ * one service means the same area in another. Cells are {@value #CELL_DEGREES} degrees on each side (about
+ * 2 km north-south).
+ */
+public final class GeoCell {
+
+    public static final double CELL_DEGREES = 0.02;
+
+    private static final long LON_CELLS = (long) Math.ceil(360 / CELL_DEGREES);
+
+    private GeoCell() {
+    }
+
+    /** The cell containing the point. */
+    public static long of(double latitude, double longitude) {
+        long row = (long) Math.floor((clamp(latitude, -90, 90) + 90) / CELL_DEGREES);
+        long column = (long) Math.floor((clamp(longitude, -180, 180) + 180) / CELL_DEGREES);
+        return row * LON_CELLS + Math.min(column, LON_CELLS - 1);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,29 @@
+package com.mobility.platform.pricing.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors for fan-out work that should not run on request threads.
+ */
+@Configuration
+public class AsyncConfig {
+
+    /** Prices the slices of a batch quote in parallel; when saturated, the request thread prices its own slice. */
+    @Bean
+    public ThreadPoolTaskExecutor quoteExecutor(
+            @Value("${pricing.quote.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(256);
+        executor.setThreadNamePrefix("quote-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mobility.platform.pricing.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies schema objects that Hibernate's ddl-auto does not manage.
+ * Every statement is idempotent and failures are logged, not fatal, so startup never depends on them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PricingSchemaInitializer implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sharded redemption counters (see DiscountRedemptionLedger). A NULL capacity means the code has no usage
+     * limit; otherwise a shard may never count more than its capacity.
+     */
+    private static final String REDEMPTION_SHARDS_TABLE = """
+            CREATE TABLE IF NOT EXISTS discount_redemption_shards (
+                discount_id BIGINT NOT NULL REFERENCES discounts (id) ON DELETE CASCADE,
+                shard INTEGER NOT NULL,
+                used BIGINT NOT NULL DEFAULT 0,
+                capacity BIGINT,
+                PRIMARY KEY (discount_id, shard),
+                CHECK (capacity IS NULL OR used <= capacity)
+            )
+            """;
+
+    @Override
+    public void run(String... args) {
+        execute("discount redemption shards table", REDEMPTION_SHARDS_TABLE);
+    }
+
+    private void execute(String description, String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+            log.info("Ensured {}", description);
+        } catch (Exception e) {
+            log.warn("Could not apply {}: {}", description, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.mobility.platform.pricing.config;
+
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * RabbitMQ configuration.
+ * EventPublisher sends java-serialized maps, so listeners need an allow-list of the
+ * packages those payloads may contain before they can deserialize them.
+ */
+@Configuration
+public class RabbitConfig {
+
+    @Bean
+    public MessageConverter messageConverter() {
+        SimpleMessageConverter converter = new SimpleMessageConverter();
+        converter.setAllowedListPatterns(List.of(
+                "java.util.*",
+                "java.lang.*",
+                "java.math.*",
+                "java.time.*",
+                "com.mobility.platform.*"));
+        return converter;
+    }
+}
@@ -3,8 +3,10 @@ package com.mobility.platform.pricing.controller;
 import com.mobility.platform.common.dto.ApiResponse;
 import com.mobility.platform.pricing.dto.DeliveryFeeRequest;
 import com.mobility.platform.pricing.dto.DeliveryFeeResponse;
+import com.mobility.platform.pricing.dto.PriceBatchRequest;
 import com.mobility.platform.pricing.dto.PriceCalculationRequest;
 import com.mobility.platform.pricing.dto.PriceCalculationResponse;
+import com.mobility.platform.pricing.dto.PriceQuoteResult;
 import com.mobility.platform.pricing.service.PricingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,6 +15,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * Pricing REST controller
  */
@@ -32,6 +36,14 @@ public class PricingController {
         return ResponseEntity.ok(ApiResponse.success("Price calculated successfully", response));
     }
     
+    @PostMapping("/calculate/batch")
+    @Operation(summary = "Calculate prices for many vehicle types and time windows in one call")
+    public ResponseEntity<ApiResponse<List<PriceQuoteResult>>> calculatePrices(
+            @Valid @RequestBody PriceBatchRequest request) {
+        List<PriceQuoteResult> results = pricingService.calculatePrices(request.getItems());
+        return ResponseEntity.ok(ApiResponse.success("Prices calculated successfully", results));
+    }
+    
     @PostMapping("/delivery-fee")
     @Operation(summary = "Calculate distance-based delivery fee")
     public ResponseEntity<ApiResponse<DeliveryFeeResponse>> calculateDeliveryFee(
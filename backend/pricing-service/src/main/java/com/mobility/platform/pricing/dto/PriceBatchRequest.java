@@ -0,0 +1,19 @@
+package com.mobility.platform.pricing.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Batch price calculation request DTO; one item per vehicle type and time window to quote
+ */
+@Data
+public class PriceBatchRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 500, message = "At most 500 items can be priced per request")
+    private List<@Valid PriceCalculationRequest> items;
+}
@@ -32,6 +32,10 @@ public class PriceCalculationRequest {
     private Long userId; // For user-specific discounts
     
     private String location; // For location-based pricing
+    
+    private Double latitude; // Pickup point; selects the area for demand-based surge
+    
+    private Double longitude;
 }
 
 
@@ -15,7 +15,9 @@ public class PriceCalculationResponse {
     private BigDecimal basePrice;
     private BigDecimal driverPrice;
     private BigDecimal surgeCharge;
+    private BigDecimal surgeMultiplier; // Static rule multiplier x live demand multiplier
     private BigDecimal weekendCharge;
+    private BigDecimal holidayCharge;
     private BigDecimal peakHoursCharge;
     private BigDecimal subtotal;
     private BigDecimal discountAmount;
@@ -0,0 +1,19 @@
+package com.mobility.platform.pricing.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * One item of a batch price calculation, at the same index as its request item.
+ * Either {@code quote} is set, or {@code errorCode}/{@code errorMessage} explain why the item could not be priced.
+ */
+@Data
+@Builder
+public class PriceQuoteResult {
+
+    private int index;
+    private boolean success;
+    private PriceCalculationResponse quote;
+    private String errorCode;
+    private String errorMessage;
+}
@@ -0,0 +1,204 @@
+package com.mobility.platform.pricing.redemption;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exact, low-contention discount redemption.
+ * <p>
+ * A code's remaining budget ({@code maxUsageCount - currentUsageCount}) is split across
+ * {@code pricing.redemption.shards} rows of {@code discount_redemption_shards}. A redemption is one conditional
+ * {@code UPDATE ... SET used = used + 1 WHERE used < capacity} on a random shard, so concurrent redemptions of
+ * a hot code rarely wait on the same row lock, and the limit can never be overshot: no shard counts past its
+ * capacity and the capacities add up to the budget. When that shard is spent, a second statement takes a use
+ * from any shard that still has one, so a redemption costs at most two round trips however many shards are
+ * spent. Codes whose random shard came up spent skip straight to that second statement until the next
+ * reconcile.
+ * <p>
+ * Every {@code pricing.redemption.reconcile-interval-ms} the shard counts are folded into
+ * {@code discounts.current_usage_count} and the remaining budget is split evenly again, which also picks up
+ * limits edited in the database. Until then {@code current_usage_count} lags behind redemptions, so quotes
+ * may still offer a code whose last use was just taken; redemption is the authoritative check.
+ */
+@Slf4j
+@Component
+public class DiscountRedemptionLedger {
+
+    private static final String INSERT_SHARD = """
+            INSERT INTO discount_redemption_shards (discount_id, shard, used, capacity)
+            VALUES (?, ?, 0, ?)
+            ON CONFLICT (discount_id, shard) DO NOTHING
+            """;
+    private static final String SPLIT_LIMITED =
+            "UPDATE discount_redemption_shards SET used = 0, capacity = ? WHERE discount_id = ? AND shard = ?";
+    private static final String SPLIT_UNLIMITED =
+            "UPDATE discount_redemption_shards SET used = 0, capacity = NULL WHERE discount_id = ?";
+    private static final String RESERVE = """
+            UPDATE discount_redemption_shards SET used = used + 1
+            WHERE discount_id = ? AND shard = ? AND (capacity IS NULL OR used < capacity)
+            """;
+    /**
+     * Takes a use from any shard with one left. A shard that is spent by the time its lock is granted is skipped
+     * for the next, so this only misses once every shard is spent.
+     */
+    private static final String RESERVE_ANY = """
+            UPDATE discount_redemption_shards SET used = used + 1
+            WHERE discount_id = ? AND shard = (
+                SELECT shard FROM discount_redemption_shards
+                WHERE discount_id = ? AND (capacity IS NULL OR used < capacity)
+                LIMIT 1 FOR UPDATE)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int shards;
+    private final Set<Long> sharded = ConcurrentHashMap.newKeySet();
+    private final Set<Long> depleted = ConcurrentHashMap.newKeySet();
+
+    public DiscountRedemptionLedger(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${pricing.redemption.shards:16}") int shards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shards = Math.max(1, shards);
+    }
+
+    /** Takes one use of the discount; false when its usage limit has been reached. */
+    public boolean reserve(Long discountId) {
+        ensureShards(discountId);
+        if (!depleted.contains(discountId)
+                && jdbcTemplate.update(RESERVE, discountId, ThreadLocalRandom.current().nextInt(shards)) == 1) {
+            return true;
+        }
+        depleted.add(discountId);
+        return jdbcTemplate.update(RESERVE_ANY, discountId, discountId) == 1;
+    }
+
+    @Scheduled(fixedDelayString = "${pricing.redemption.reconcile-interval-ms:10000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Failed to reconcile discount redemptions", e);
+        }
+    }
+
+    public void reconcile() {
+        List<Long> discountIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT discount_id FROM discount_redemption_shards", Long.class);
+        int folded = 0;
+        for (Long discountId : discountIds) {
+            Long redeemed = transactionTemplate.execute(status -> reconcile(discountId));
+            folded += redeemed != null && redeemed > 0 ? 1 : 0;
+        }
+        if (folded > 0) {
+            log.debug("Reconciled redemptions of {} discounts", folded);
+        }
+    }
+
+    /** Folds one discount's shard counts into its usage count and re-splits the remaining budget. */
+    private Long reconcile(Long discountId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT used, capacity FROM discount_redemption_shards WHERE discount_id = ? ORDER BY shard FOR UPDATE",
+                discountId);
+        List<Map<String, Object>> discount = jdbcTemplate.queryForList(
+                "SELECT max_usage_count, current_usage_count FROM discounts WHERE id = ? FOR UPDATE", discountId);
+        if (rows.isEmpty() || discount.isEmpty()) {
+            return 0L;
+        }
+        long redeemed = 0;
+        Long spare = 0L;
+        for (Map<String, Object> row : rows) {
+            long used = ((Number) row.get("used")).longValue();
+            redeemed += used;
+            spare = spare == null || row.get("capacity") == null
+                    ? null : spare + ((Number) row.get("capacity")).longValue() - used;
+        }
+        Number max = (Number) discount.get(0).get("max_usage_count");
+        Number current = (Number) discount.get(0).get("current_usage_count");
+        long usage = (current != null ? current.longValue() : 0) + redeemed;
+        Long remaining = max != null ? Math.max(0, max.longValue() - usage) : null;
+        if (redeemed == 0 && rows.size() == shards && Objects.equals(spare, remaining)) {
+            return 0L;
+        }
+        if (redeemed > 0) {
+            jdbcTemplate.update("UPDATE discounts SET current_usage_count = ?, updated_at = now(), " +
+                    "version = version + 1 WHERE id = ?", usage, discountId);
+        }
+        if (rows.size() != shards) {
+            // Shard count was reconfigured: rebuild the rows from the usage count just written
+            jdbcTemplate.update("DELETE FROM discount_redemption_shards WHERE discount_id = ?", discountId);
+            createShards(discountId, remaining);
+        } else if (remaining == null) {
+            jdbcTemplate.update(SPLIT_UNLIMITED, discountId);
+        } else {
+            // Rewritten in place, so a redemption blocked on a shard re-checks against its new capacity
+            List<Object[]> splits = new ArrayList<>(shards);
+            for (int shard = 0; shard < shards; shard++) {
+                splits.add(new Object[] {shardCapacity(remaining, shards, shard), discountId, shard});
+            }
+            jdbcTemplate.batchUpdate(SPLIT_LIMITED, splits);
+        }
+        // Only a hint for this instance: a split made elsewhere is still found by RESERVE_ANY
+        depleted.remove(discountId);
+        return redeemed;
+    }
+
+    /**
+     * Capacity of one shard when {@code remaining} uses are split over {@code shards}: an even share, with the
+     * first {@code remaining % shards} shards taking one extra, so the capacities add up to {@code remaining}.
+     */
+    static long shardCapacity(long remaining, int shards, int shard) {
+        long budget = Math.max(0, remaining);
+        return budget / shards + (shard < budget % shards ? 1 : 0);
+    }
+
+    /**
+     * Creates the discount's shard rows on first use. They are inserted in one transaction, so a concurrent
+     * reconcile never sees a partial set and mistakes it for a reconfigured shard count.
+     */
+    private void ensureShards(Long discountId) {
+        if (sharded.contains(discountId)) {
+            return;
+        }
+        Boolean created = transactionTemplate.execute(status -> {
+            List<Map<String, Object>> discount = jdbcTemplate.queryForList(
+                    "SELECT max_usage_count, current_usage_count FROM discounts WHERE id = ?", discountId);
+            if (discount.isEmpty()) {
+                return false;
+            }
+            Number max = (Number) discount.get(0).get("max_usage_count");
+            Number current = (Number) discount.get(0).get("current_usage_count");
+            createShards(discountId, max != null
+                    ? Math.max(0, max.longValue() - (current != null ? current.longValue() : 0)) : null);
+            return true;
+        });
+        if (Boolean.TRUE.equals(created)) {
+            sharded.add(discountId);
+        }
+    }
+
+    /** Inserts any missing shard rows for the budget; a NULL {@code remaining} means no usage limit. */
+    private void createShards(Long discountId, Long remaining) {
+        List<Object[]> rows = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            Long capacity = remaining != null ? shardCapacity(remaining, shards, shard) : null;
+            rows.add(new Object[] {discountId, shard, new SqlParameterValue(Types.BIGINT, capacity)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SHARD, rows);
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +30,15 @@ public interface DiscountRepository extends JpaRepository<Discount, Long> {
             @Param("code") String code,
             @Param("now") LocalDateTime now);
     
+    @Query("SELECT d FROM Discount d WHERE d.code IN :codes " +
+            "AND d.active = true " +
+            "AND d.validFrom <= :now " +
+            "AND d.validTo >= :now " +
+            "AND (d.maxUsageCount IS NULL OR d.currentUsageCount < d.maxUsageCount)")
+    List<Discount> findValidDiscountsByCodes(
+            @Param("codes") Collection<String> codes,
+            @Param("now") LocalDateTime now);
+    
     @Query("SELECT d FROM Discount d WHERE d.active = true " +
             "AND d.validFrom <= :now " +
             "AND d.validTo >= :now")
@@ -0,0 +1,72 @@
+package com.mobility.platform.pricing.rules;
+
+import com.mobility.platform.pricing.entity.PricingRule;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Immutable, quote-ready form of a {@link PricingRule}: nullable columns resolved to their defaults, peak-hour
+ * bounds parsed once, and each multiplier pre-reduced to the extra fraction it adds (zero when it adds nothing).
+ */
+public record CompiledPricingRule(
+        Long id,
+        String vehicleType,
+        int priority,
+        LocalDateTime effectiveFrom,
+        LocalDateTime effectiveTo,
+        BigDecimal baseHourlyRate,
+        BigDecimal baseDailyRate,
+        BigDecimal driverHourlyRate,
+        BigDecimal driverDailyRate,
+        BigDecimal surgeExtra,
+        BigDecimal weekendExtra,
+        BigDecimal holidayExtra,
+        BigDecimal peakHoursExtra,
+        LocalTime peakHoursStart,
+        LocalTime peakHoursEnd,
+        int minimumRentalHours,
+        BigDecimal longTermDiscountRate,
+        Integer longTermThresholdDays) {
+
+    static CompiledPricingRule compile(PricingRule rule) {
+        LocalTime peakStart = parseTime(rule.getPeakHoursStart());
+        LocalTime peakEnd = parseTime(rule.getPeakHoursEnd());
+        return new CompiledPricingRule(
+                rule.getId(),
+                rule.getVehicleType(),
+                rule.getPriority() != null ? rule.getPriority() : 0,
+                rule.getEffectiveFrom(),
+                rule.getEffectiveTo(),
+                rule.getBaseHourlyRate(),
+                rule.getBaseDailyRate(),
+                rule.getDriverHourlyRate(),
+                rule.getDriverDailyRate(),
+                extra(rule.getSurgeMultiplier()),
+                extra(rule.getWeekendMultiplier()),
+                extra(rule.getHolidayMultiplier()),
+                peakStart != null && peakEnd != null ? extra(rule.getPeakHoursMultiplier()) : BigDecimal.ZERO,
+                peakStart,
+                peakEnd,
+                rule.getMinimumRentalHours() != null ? rule.getMinimumRentalHours() : 1,
+                rule.getLongTermDiscountRate(),
+                rule.getLongTermThresholdDays());
+    }
+
+    /** True when the rule is in force at {@code now} (both bounds inclusive, like the original query). */
+    public boolean isEffectiveAt(LocalDateTime now) {
+        return (effectiveFrom == null || !effectiveFrom.isAfter(now))
+                && (effectiveTo == null || !effectiveTo.isBefore(now));
+    }
+
+    private static BigDecimal extra(BigDecimal multiplier) {
+        return multiplier != null && multiplier.compareTo(BigDecimal.ONE) > 0
+                ? multiplier.subtract(BigDecimal.ONE)
+                : BigDecimal.ZERO;
+    }
+
+    private static LocalTime parseTime(String value) {
+        return value != null && !value.isBlank() ? LocalTime.parse(value.trim()) : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.mobility.platform.pricing.rules;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Which calendar days carry the weekend and holiday surcharges. Weekend days and the public holiday list come
+ * from {@code pricing.calendar.*}; a holiday that falls on a weekend day is charged as a holiday only.
+ */
+@Component
+public class PricingCalendar {
+
+    private final Set<DayOfWeek> weekendDays;
+    private final Set<LocalDate> holidays;
+
+    public PricingCalendar(@Value("${pricing.calendar.weekend-days:SATURDAY,SUNDAY}") String[] weekendDays,
+                           @Value("${pricing.calendar.holidays:}") String[] holidays) {
+        this.weekendDays = Arrays.stream(weekendDays)
+                .filter(day -> !day.isBlank())
+                .map(day -> DayOfWeek.valueOf(day.trim().toUpperCase()))
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(DayOfWeek.class)));
+        this.holidays = Arrays.stream(holidays)
+                .filter(date -> !date.isBlank())
+                .map(date -> LocalDate.parse(date.trim()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return holidays.contains(date);
+    }
+
+    public boolean isWeekend(LocalDate date) {
+        return weekendDays.contains(date.getDayOfWeek()) && !isHoliday(date);
+    }
+}
@@ -0,0 +1,113 @@
+package com.mobility.platform.pricing.rules;
+
+import com.mobility.platform.pricing.entity.PricingRule;
+import com.mobility.platform.pricing.repository.PricingRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All active pricing rules, compiled and grouped per vehicle type, so a quote needs no database access.
+ * <p>
+ * Each type's rules are ordered by priority (highest first), then by the most recent effective-from, then by
+ * newest ID, so the first rule in force at a given time is the one that applies. The whole table is an
+ * immutable snapshot replaced atomically every {@code pricing.rules.reload-interval-ms}; rules are edited
+ * directly in the database, so a change takes effect within one interval. A rule that fails to compile
+ * (e.g. a malformed peak-hour time) is skipped and logged instead of blocking the reload.
+ * <p>
+ * Callers pricing several items together take one {@link #snapshot()} so every item sees the same rules even if
+ * a reload lands mid-batch.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PricingRuleTable {
+
+    private static final Comparator<CompiledPricingRule> PRECEDENCE = Comparator
+            .comparingInt(CompiledPricingRule::priority).reversed()
+            .thenComparing(CompiledPricingRule::effectiveFrom, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(CompiledPricingRule::id, Comparator.reverseOrder());
+
+    private final PricingRuleRepository pricingRuleRepository;
+
+    private volatile Snapshot current;
+
+    /** The rule that applies to the vehicle type at {@code now}, or null when none does. */
+    public CompiledPricingRule ruleFor(String vehicleType, LocalDateTime now) {
+        return snapshot().ruleFor(vehicleType, now);
+    }
+
+    /** The table as currently loaded; it never changes after being returned. */
+    public Snapshot snapshot() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : loadIfAbsent();
+    }
+
+    @Scheduled(initialDelayString = "${pricing.rules.reload-interval-ms:30000}",
+            fixedDelayString = "${pricing.rules.reload-interval-ms:30000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Failed to reload pricing rules; keeping the previous table", e);
+        }
+    }
+
+    public void reload() {
+        List<PricingRule> active = pricingRuleRepository.findAllActiveRules();
+        Map<String, List<CompiledPricingRule>> grouped = new HashMap<>();
+        for (PricingRule rule : active) {
+            try {
+                grouped.computeIfAbsent(rule.getVehicleType(), type -> new ArrayList<>())
+                        .add(CompiledPricingRule.compile(rule));
+            } catch (RuntimeException e) {
+                log.warn("Skipping pricing rule {} ({}): {}", rule.getId(), rule.getName(), e.getMessage());
+            }
+        }
+        Map<String, CompiledPricingRule[]> table = new HashMap<>();
+        grouped.forEach((type, rules) -> {
+            rules.sort(PRECEDENCE);
+            table.put(type, rules.toArray(CompiledPricingRule[]::new));
+        });
+        current = new Snapshot(Map.copyOf(table));
+        log.debug("Pricing rule table loaded: {} rules for {} vehicle types", active.size(), table.size());
+    }
+
+    private synchronized Snapshot loadIfAbsent() {
+        if (current == null) {
+            reload();
+        }
+        return current;
+    }
+
+    /** One immutable generation of the rule table. */
+    public static final class Snapshot {
+
+        private final Map<String, CompiledPricingRule[]> rulesByType;
+
+        private Snapshot(Map<String, CompiledPricingRule[]> rulesByType) {
+            this.rulesByType = rulesByType;
+        }
+
+        /** The rule that applies to the vehicle type at {@code now}, or null when none does. */
+        public CompiledPricingRule ruleFor(String vehicleType, LocalDateTime now) {
+            CompiledPricingRule[] candidates = vehicleType != null ? rulesByType.get(vehicleType) : null;
+            if (candidates != null) {
+                for (CompiledPricingRule rule : candidates) {
+                    if (rule.isEffectiveAt(now)) {
+                        return rule;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.mobility.platform.pricing.rules;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link TimeBucketTable} per vehicle type, built on first use. The horizon starts at yesterday's midnight
+ * and spans {@code pricing.buckets.horizon-days}; a table is rebuilt when the day rolls over or when the rule in
+ * force for its type changes.
+ */
+@Slf4j
+@Component
+public class TimeBucketCache {
+
+    private final PricingCalendar calendar;
+    private final int horizonDays;
+    private final Map<String, TimeBucketTable> tablesByType = new ConcurrentHashMap<>();
+
+    public TimeBucketCache(PricingCalendar calendar,
+                           @Value("${pricing.buckets.horizon-days:400}") int horizonDays) {
+        this.calendar = calendar;
+        this.horizonDays = horizonDays;
+    }
+
+    public TimeBucketTable tableFor(CompiledPricingRule rule) {
+        LocalDate originDate = LocalDate.now().minusDays(1);
+        TimeBucketTable table = tablesByType.get(rule.vehicleType());
+        if (table != null && table.originDate().equals(originDate) && table.rule().equals(rule)) {
+            return table;
+        }
+        return tablesByType.compute(rule.vehicleType(), (type, existing) -> {
+            if (existing != null && existing.originDate().equals(originDate) && existing.rule().equals(rule)) {
+                return existing;
+            }
+            log.debug("Building {}-day time bucket table for vehicle type {} (rule {})", horizonDays, type, rule.id());
+            return TimeBucketTable.build(rule, calendar, originDate, horizonDays);
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.mobility.platform.pricing.rules;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Hour buckets over a rolling horizon for one pricing rule, holding cumulative weekend, holiday and peak-hour
+ * minutes. The minutes of a rental window that fall under each surcharge are the difference of two prefix
+ * lookups, so a multi-week quote costs the same as a one-hour one. Partial first and last hours are resolved to
+ * the minute. Windows reaching outside the horizon are walked day by day, which gives the same answer.
+ */
+public final class TimeBucketTable {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final CompiledPricingRule rule;
+    private final PricingCalendar calendar;
+    private final LocalDate originDate;
+    private final LocalDateTime origin;
+    private final int hours;
+    private final int[] peakOfDay;
+    private final int[] weekendPrefix;
+    private final int[] holidayPrefix;
+    private final int[] peakPrefix;
+
+    private TimeBucketTable(CompiledPricingRule rule, PricingCalendar calendar, LocalDate originDate, int days) {
+        this.rule = rule;
+        this.calendar = calendar;
+        this.originDate = originDate;
+        this.origin = originDate.atStartOfDay();
+        this.hours = days * 24;
+        this.peakOfDay = peakOfDay(rule.peakHoursStart(), rule.peakHoursEnd());
+        this.weekendPrefix = new int[hours + 1];
+        this.holidayPrefix = new int[hours + 1];
+        this.peakPrefix = new int[hours + 1];
+        for (int day = 0; day < days; day++) {
+            LocalDate date = originDate.plusDays(day);
+            int weekend = calendar.isWeekend(date) ? 60 : 0;
+            int holiday = calendar.isHoliday(date) ? 60 : 0;
+            for (int hour = 0; hour < 24; hour++) {
+                int bucket = day * 24 + hour;
+                weekendPrefix[bucket + 1] = weekendPrefix[bucket] + weekend;
+                holidayPrefix[bucket + 1] = holidayPrefix[bucket] + holiday;
+                peakPrefix[bucket + 1] = peakPrefix[bucket] + peakOfDay[(hour + 1) * 60] - peakOfDay[hour * 60];
+            }
+        }
+    }
+
+    /** Builds the table for {@code days} days starting at midnight of {@code originDate}. */
+    public static TimeBucketTable build(CompiledPricingRule rule, PricingCalendar calendar,
+                                        LocalDate originDate, int days) {
+        return new TimeBucketTable(rule, calendar, originDate, Math.max(1, days));
+    }
+
+    public CompiledPricingRule rule() {
+        return rule;
+    }
+
+    public LocalDate originDate() {
+        return originDate;
+    }
+
+    /** Minutes of {@code [start, end)} overall and under each surcharge; all zero for an empty window. */
+    public Exposure exposure(LocalDateTime start, LocalDateTime end) {
+        long from = Duration.between(origin, start).toMinutes();
+        long to = Duration.between(origin, end).toMinutes();
+        if (to <= from) {
+            return new Exposure(0, 0, 0, 0);
+        }
+        if (from >= 0 && to <= hours * 60L) {
+            int a = (int) from;
+            int b = (int) to;
+            return new Exposure(
+                    to - from,
+                    cumulative(weekendPrefix, b, false) - cumulative(weekendPrefix, a, false),
+                    cumulative(holidayPrefix, b, false) - cumulative(holidayPrefix, a, false),
+                    cumulative(peakPrefix, b, true) - cumulative(peakPrefix, a, true));
+        }
+        return walk(start, end);
+    }
+
+    /** Surcharge minutes before minute {@code m} of the horizon. */
+    private long cumulative(int[] prefix, int m, boolean peak) {
+        int bucket = m / 60;
+        int rest = m % 60;
+        if (rest == 0) {
+            return prefix[bucket];
+        }
+        if (peak) {
+            int hourStart = (bucket % 24) * 60;
+            return prefix[bucket] + peakOfDay[hourStart + rest] - peakOfDay[hourStart];
+        }
+        // Weekend and holiday buckets are all-or-nothing, so the bucket's own total says whether it counts
+        return prefix[bucket] + (prefix[bucket + 1] - prefix[bucket] == 60 ? rest : 0);
+    }
+
+    private Exposure walk(LocalDateTime start, LocalDateTime end) {
+        long weekend = 0;
+        long holiday = 0;
+        long peak = 0;
+        LocalDateTime cursor = start;
+        while (cursor.isBefore(end)) {
+            LocalDate date = cursor.toLocalDate();
+            LocalDateTime next = date.plusDays(1).atStartOfDay();
+            LocalDateTime segmentEnd = next.isBefore(end) ? next : end;
+            int fromMinute = cursor.getHour() * 60 + cursor.getMinute();
+            int toMinute = segmentEnd.equals(next) ? MINUTES_PER_DAY : segmentEnd.getHour() * 60 + segmentEnd.getMinute();
+            int minutes = toMinute - fromMinute;
+            if (calendar.isWeekend(date)) {
+                weekend += minutes;
+            }
+            if (calendar.isHoliday(date)) {
+                holiday += minutes;
+            }
+            peak += peakOfDay[toMinute] - peakOfDay[fromMinute];
+            cursor = segmentEnd;
+        }
+        return new Exposure(Duration.between(start, end).toMinutes(), weekend, holiday, peak);
+    }
+
+    /** Cumulative peak minutes from midnight; the window may wrap past midnight. */
+    private static int[] peakOfDay(LocalTime peakStart, LocalTime peakEnd) {
+        int[] cumulative = new int[MINUTES_PER_DAY + 1];
+        int from = peakStart != null ? peakStart.getHour() * 60 + peakStart.getMinute() : 0;
+        int to = peakEnd != null ? peakEnd.getHour() * 60 + peakEnd.getMinute() : 0;
+        boolean hasWindow = peakStart != null && peakEnd != null && from != to;
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            boolean inPeak = hasWindow && (from < to
+                    ? minute >= from && minute < to
+                    : minute >= from || minute < to);
+            cumulative[minute + 1] = cumulative[minute] + (inPeak ? 1 : 0);
+        }
+        return cumulative;
+    }
+
+    /** How many minutes of a rental window fall under each time-based surcharge. */
+    public record Exposure(long totalMinutes, long weekendMinutes, long holidayMinutes, long peakMinutes) {
+    }
+}
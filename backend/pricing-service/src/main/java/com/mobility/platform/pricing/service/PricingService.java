@@ -6,23 +6,34 @@ import com.mobility.platform.pricing.dto.DeliveryFeeRequest;
 import com.mobility.platform.pricing.dto.DeliveryFeeResponse;
 import com.mobility.platform.pricing.dto.PriceCalculationRequest;
 import com.mobility.platform.pricing.dto.PriceCalculationResponse;
+import com.mobility.platform.pricing.dto.PriceQuoteResult;
 import com.mobility.platform.pricing.entity.DeliveryPricingRule;
 import com.mobility.platform.pricing.entity.Discount;
-import com.mobility.platform.pricing.entity.PricingRule;
 import com.mobility.platform.pricing.repository.DeliveryPricingRuleRepository;
+import com.mobility.platform.pricing.redemption.DiscountRedemptionLedger;
 import com.mobility.platform.pricing.repository.DiscountRepository;
-import com.mobility.platform.pricing.repository.PricingRuleRepository;
+import com.mobility.platform.pricing.rules.CompiledPricingRule;
+import com.mobility.platform.pricing.rules.PricingRuleTable;
+import com.mobility.platform.pricing.rules.TimeBucketCache;
+import com.mobility.platform.pricing.rules.TimeBucketTable;
+import com.mobility.platform.pricing.surge.SurgeEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Pricing service implementation with dynamic pricing logic
@@ -32,11 +43,16 @@ import java.time.LocalTime;
 @RequiredArgsConstructor
 public class PricingService {
     
-    private final PricingRuleRepository pricingRuleRepository;
+    private final PricingRuleTable pricingRuleTable;
+    private final TimeBucketCache timeBucketCache;
+    private final SurgeEngine surgeEngine;
+    private final DiscountRedemptionLedger discountRedemptionLedger;
     private final DiscountRepository discountRepository;
     private final DeliveryPricingRuleRepository deliveryPricingRuleRepository;
+    private final ThreadPoolTaskExecutor quoteExecutor;
 
     private static final BigDecimal DEFAULT_DELIVERY_RATE_PER_KM = BigDecimal.valueOf(10000);
+    private static final int QUOTE_SLICE_SIZE = 50;
 
     public DeliveryFeeResponse calculateDeliveryFee(DeliveryFeeRequest request) {
         log.info("Calculating delivery fee for vehicleType={}, distanceKm={}",
@@ -62,17 +78,111 @@ public class PricingService {
         log.info("Calculating price for vehicle type: {}, withDriver: {}", 
                 request.getVehicleType(), request.getWithDriver());
         
+        LocalDateTime now = LocalDateTime.now();
+        
+        // Get pricing rule (from the in-memory rule table, no DB access)
+        CompiledPricingRule rule = pricingRuleTable.ruleFor(request.getVehicleType(), now);
+        
+        Discount discount = null;
+        if (hasDiscountCode(request)) {
+            discount = discountRepository.findValidDiscountByCode(request.getDiscountCode(), now)
+                    .orElse(null);
+        }
+        
+        PriceCalculationResponse response = quote(request, rule, discount, surgeEngine.snapshot());
+        log.info("Price calculated: Total = {}, Discount = {}", 
+                response.getTotalPrice(), response.getDiscountAmount());
+        return response;
+    }
+    
+    /**
+     * Prices every item against one snapshot of the rule table. Each distinct vehicle type and discount code is
+     * resolved once for the whole batch (discounts in a single query), then the items are priced in slices on
+     * the quote executor, the last slice on the calling thread. Results are in input order; an item that cannot
+     * be priced carries its error code instead of failing the batch.
+     */
+    public List<PriceQuoteResult> calculatePrices(List<PriceCalculationRequest> items) {
+        LocalDateTime now = LocalDateTime.now();
+        PricingRuleTable.Snapshot rules = pricingRuleTable.snapshot();
+        SurgeEngine.Snapshot surge = surgeEngine.snapshot();
+        
+        Map<String, CompiledPricingRule> rulesByType = new HashMap<>();
+        Set<String> codes = new HashSet<>();
+        for (PriceCalculationRequest item : items) {
+            if (!rulesByType.containsKey(item.getVehicleType())) {
+                rulesByType.put(item.getVehicleType(), rules.ruleFor(item.getVehicleType(), now));
+            }
+            if (hasDiscountCode(item)) {
+                codes.add(item.getDiscountCode());
+            }
+        }
+        Map<String, Discount> discountsByCode = new HashMap<>();
+        if (!codes.isEmpty()) {
+            discountRepository.findValidDiscountsByCodes(codes, now)
+                    .forEach(discount -> discountsByCode.put(discount.getCode(), discount));
+        }
+        
+        PriceQuoteResult[] results = new PriceQuoteResult[items.size()];
+        List<CompletableFuture<Void>> slices = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += QUOTE_SLICE_SIZE) {
+            int start = from;
+            int end = Math.min(from + QUOTE_SLICE_SIZE, items.size());
+            Runnable slice = () -> {
+                for (int i = start; i < end; i++) {
+                    results[i] = quoteItem(i, items.get(i), rulesByType, discountsByCode, surge);
+                }
+            };
+            if (end == items.size()) {
+                slice.run(); // the request thread prices the last slice itself
+            } else {
+                slices.add(CompletableFuture.runAsync(slice, quoteExecutor));
+            }
+        }
+        slices.forEach(CompletableFuture::join);
+        
+        log.info("Priced batch of {} items ({} vehicle types, {} discount codes)", 
+                items.size(), rulesByType.size(), codes.size());
+        return Arrays.asList(results);
+    }
+    
+    private PriceQuoteResult quoteItem(int index, PriceCalculationRequest item,
+                                       Map<String, CompiledPricingRule> rulesByType,
+                                       Map<String, Discount> discountsByCode,
+                                       SurgeEngine.Snapshot surge) {
+        try {
+            Discount discount = hasDiscountCode(item) ? discountsByCode.get(item.getDiscountCode()) : null;
+            return PriceQuoteResult.builder()
+                    .index(index)
+                    .success(true)
+                    .quote(quote(item, rulesByType.get(item.getVehicleType()), discount, surge))
+                    .build();
+        } catch (BusinessException e) {
+            return PriceQuoteResult.builder()
+                    .index(index)
+                    .success(false)
+                    .errorCode(e.getErrorCode())
+                    .errorMessage(e.getMessage())
+                    .build();
+        }
+    }
+    
+    private boolean hasDiscountCode(PriceCalculationRequest request) {
+        return request.getDiscountCode() != null && !request.getDiscountCode().isEmpty();
+    }
+    
+    /** Prices one request with its rule, discount and surge multipliers already resolved; does no I/O. */
+    private PriceCalculationResponse quote(PriceCalculationRequest request, CompiledPricingRule rule,
+                                           Discount discount, SurgeEngine.Snapshot surge) {
         // Validate dates
         if (request.getEndDateTime().isBefore(request.getStartDateTime())) {
             throw new BusinessException("End date/time must be after start date/time", "INVALID_DATE_RANGE");
         }
         
-        // Get pricing rule
-        PricingRule rule = pricingRuleRepository.findActiveRuleForVehicleType(
-                request.getVehicleType(), LocalDateTime.now())
-                .orElseThrow(() -> new BusinessException(
-                        "No pricing rule found for vehicle type: " + request.getVehicleType(),
-                        "NO_PRICING_RULE"));
+        if (rule == null) {
+            throw new BusinessException(
+                    "No pricing rule found for vehicle type: " + request.getVehicleType(),
+                    "NO_PRICING_RULE");
+        }
         
         // Calculate duration
         Duration duration = Duration.between(request.getStartDateTime(), request.getEndDateTime());
@@ -80,8 +190,8 @@ public class PricingService {
         long totalDays = duration.toDays();
         
         // Enforce minimum rental duration
-        if (totalHours < rule.getMinimumRentalHours()) {
-            totalHours = rule.getMinimumRentalHours();
+        if (totalHours < rule.minimumRentalHours()) {
+            totalHours = rule.minimumRentalHours();
         }
         
         // Calculate base price
@@ -93,29 +203,34 @@ public class PricingService {
             driverPrice = calculateDriverPrice(rule, totalHours, totalDays);
         }
         
-        // Calculate surge pricing
-        BigDecimal surgeCharge = calculateSurgeCharge(basePrice, rule);
-        
-        // Calculate weekend pricing
-        BigDecimal weekendCharge = calculateWeekendCharge(
-                basePrice, rule, request.getStartDateTime(), request.getEndDateTime());
+        // Calculate surge pricing: the rule's static multiplier scaled by live demand in the area
+        BigDecimal surgeMultiplier = BigDecimal.ONE.add(rule.surgeExtra()).multiply(BigDecimal.valueOf(
+                surge.multiplierFor(request.getVehicleType(), request.getLatitude(), request.getLongitude())));
+        BigDecimal surgeCharge = calculateSurgeCharge(basePrice, surgeMultiplier);
         
-        // Calculate peak hours pricing
-        BigDecimal peakHoursCharge = calculatePeakHoursCharge(
-                basePrice, rule, request.getStartDateTime(), request.getEndDateTime());
+        // Weekend, holiday and peak surcharges apply to the share of the rental that falls in those hours
+        TimeBucketTable.Exposure exposure = timeBucketCache.tableFor(rule)
+                .exposure(request.getStartDateTime(), request.getEndDateTime());
+        BigDecimal weekendCharge = calculateTimeWeightedCharge(
+                basePrice, rule.weekendExtra(), exposure.weekendMinutes(), exposure.totalMinutes());
+        BigDecimal holidayCharge = calculateTimeWeightedCharge(
+                basePrice, rule.holidayExtra(), exposure.holidayMinutes(), exposure.totalMinutes());
+        BigDecimal peakHoursCharge = calculateTimeWeightedCharge(
+                basePrice, rule.peakHoursExtra(), exposure.peakMinutes(), exposure.totalMinutes());
         
         // Calculate subtotal
         BigDecimal subtotal = basePrice
                 .add(driverPrice)
                 .add(surgeCharge)
                 .add(weekendCharge)
+                .add(holidayCharge)
                 .add(peakHoursCharge);
         
         // Apply long-term discount
-        if (rule.getLongTermDiscountRate() != null && 
-            rule.getLongTermThresholdDays() != null &&
-            totalDays >= rule.getLongTermThresholdDays()) {
-            BigDecimal longTermDiscount = subtotal.multiply(rule.getLongTermDiscountRate())
+        if (rule.longTermDiscountRate() != null && 
+            rule.longTermThresholdDays() != null &&
+            totalDays >= rule.longTermThresholdDays()) {
+            BigDecimal longTermDiscount = subtotal.multiply(rule.longTermDiscountRate())
                     .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
             subtotal = subtotal.subtract(longTermDiscount);
         }
@@ -125,16 +240,10 @@ public class PricingService {
         Boolean discountApplied = false;
         String discountCode = null;
         
-        if (request.getDiscountCode() != null && !request.getDiscountCode().isEmpty()) {
-            Discount discount = discountRepository.findValidDiscountByCode(
-                    request.getDiscountCode(), LocalDateTime.now())
-                    .orElse(null);
-            
-            if (discount != null && isDiscountApplicable(discount, request, subtotal)) {
-                discountAmount = calculateDiscountAmount(discount, subtotal);
-                discountApplied = true;
-                discountCode = discount.getCode();
-            }
+        if (discount != null && isDiscountApplicable(discount, request, subtotal)) {
+            discountAmount = calculateDiscountAmount(discount, subtotal);
+            discountApplied = true;
+            discountCode = discount.getCode();
         }
         
         // Calculate total
@@ -145,16 +254,16 @@ public class PricingService {
         
         // Build price breakdown
         String priceBreakdown = buildPriceBreakdown(
-                basePrice, driverPrice, surgeCharge, weekendCharge, 
+                basePrice, driverPrice, surgeCharge, weekendCharge, holidayCharge,
                 peakHoursCharge, discountAmount, totalHours, totalDays);
         
-        log.info("Price calculated: Total = {}, Discount = {}", totalPrice, discountAmount);
-        
         return PriceCalculationResponse.builder()
                 .basePrice(basePrice.setScale(2, RoundingMode.HALF_UP))
                 .driverPrice(driverPrice.setScale(2, RoundingMode.HALF_UP))
                 .surgeCharge(surgeCharge.setScale(2, RoundingMode.HALF_UP))
+                .surgeMultiplier(surgeMultiplier.setScale(2, RoundingMode.HALF_UP))
                 .weekendCharge(weekendCharge.setScale(2, RoundingMode.HALF_UP))
+                .holidayCharge(holidayCharge.setScale(2, RoundingMode.HALF_UP))
                 .peakHoursCharge(peakHoursCharge.setScale(2, RoundingMode.HALF_UP))
                 .subtotal(subtotal.setScale(2, RoundingMode.HALF_UP))
                 .discountAmount(discountAmount.setScale(2, RoundingMode.HALF_UP))
@@ -167,56 +276,35 @@ public class PricingService {
                 .build();
     }
     
-    private BigDecimal calculateBasePrice(PricingRule rule, long hours, long days) {
+    private BigDecimal calculateBasePrice(CompiledPricingRule rule, long hours, long days) {
         // If rental is for full days, use daily rate
         if (hours >= 24 && days > 0) {
-            return rule.getBaseDailyRate().multiply(BigDecimal.valueOf(days));
+            return rule.baseDailyRate().multiply(BigDecimal.valueOf(days));
         }
         // Otherwise use hourly rate
-        return rule.getBaseHourlyRate().multiply(BigDecimal.valueOf(hours));
+        return rule.baseHourlyRate().multiply(BigDecimal.valueOf(hours));
     }
     
-    private BigDecimal calculateDriverPrice(PricingRule rule, long hours, long days) {
+    private BigDecimal calculateDriverPrice(CompiledPricingRule rule, long hours, long days) {
         if (hours >= 24 && days > 0) {
-            return rule.getDriverDailyRate().multiply(BigDecimal.valueOf(days));
+            return rule.driverDailyRate().multiply(BigDecimal.valueOf(days));
         }
-        return rule.getDriverHourlyRate().multiply(BigDecimal.valueOf(hours));
+        return rule.driverHourlyRate().multiply(BigDecimal.valueOf(hours));
     }
     
-    private BigDecimal calculateSurgeCharge(BigDecimal basePrice, PricingRule rule) {
-        if (rule.getSurgeMultiplier().compareTo(BigDecimal.ONE) > 0) {
-            return basePrice.multiply(rule.getSurgeMultiplier().subtract(BigDecimal.ONE));
+    private BigDecimal calculateSurgeCharge(BigDecimal basePrice, BigDecimal surgeMultiplier) {
+        if (surgeMultiplier.compareTo(BigDecimal.ONE) > 0) {
+            return basePrice.multiply(surgeMultiplier.subtract(BigDecimal.ONE));
         }
         return BigDecimal.ZERO;
     }
     
-    private BigDecimal calculateWeekendCharge(BigDecimal basePrice, PricingRule rule, 
-                                               LocalDateTime start, LocalDateTime end) {
-        if (rule.getWeekendMultiplier().compareTo(BigDecimal.ONE) > 0) {
-            // Check if rental period includes weekend
-            DayOfWeek startDay = start.getDayOfWeek();
-            DayOfWeek endDay = end.getDayOfWeek();
-            
-            if (startDay == DayOfWeek.SATURDAY || startDay == DayOfWeek.SUNDAY ||
-                endDay == DayOfWeek.SATURDAY || endDay == DayOfWeek.SUNDAY) {
-                return basePrice.multiply(rule.getWeekendMultiplier().subtract(BigDecimal.ONE));
-            }
-        }
-        return BigDecimal.ZERO;
-    }
-    
-    private BigDecimal calculatePeakHoursCharge(BigDecimal basePrice, PricingRule rule,
-                                                 LocalDateTime start, LocalDateTime end) {
-        if (rule.getPeakHoursMultiplier().compareTo(BigDecimal.ONE) > 0 &&
-            rule.getPeakHoursStart() != null && rule.getPeakHoursEnd() != null) {
-            
-            LocalTime peakStart = LocalTime.parse(rule.getPeakHoursStart());
-            LocalTime peakEnd = LocalTime.parse(rule.getPeakHoursEnd());
-            LocalTime startTime = start.toLocalTime();
-            
-            if (startTime.isAfter(peakStart) && startTime.isBefore(peakEnd)) {
-                return basePrice.multiply(rule.getPeakHoursMultiplier().subtract(BigDecimal.ONE));
-            }
+    private BigDecimal calculateTimeWeightedCharge(BigDecimal basePrice, BigDecimal extra,
+                                                   long minutes, long totalMinutes) {
+        if (extra.signum() > 0 && minutes > 0 && totalMinutes > 0) {
+            return basePrice.multiply(extra)
+                    .multiply(BigDecimal.valueOf(minutes))
+                    .divide(BigDecimal.valueOf(totalMinutes), 4, RoundingMode.HALF_UP);
         }
         return BigDecimal.ZERO;
     }
@@ -276,21 +364,25 @@ public class PricingService {
         return discountAmount;
     }
     
-    @Transactional
+    /**
+     * Redeems one use of the code. The usage limit is enforced exactly by {@link DiscountRedemptionLedger};
+     * {@code currentUsageCount} catches up when the ledger reconciles.
+     */
     public void applyDiscount(String discountCode) {
         Discount discount = discountRepository.findByCode(discountCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Discount", "code", discountCode));
         
-        discount.setCurrentUsageCount(discount.getCurrentUsageCount() + 1);
-        discountRepository.save(discount);
+        if (!discountRedemptionLedger.reserve(discount.getId())) {
+            throw new BusinessException("Discount code usage limit has been reached", "DISCOUNT_EXHAUSTED");
+        }
         
-        log.info("Discount {} applied. Current usage: {}", discountCode, discount.getCurrentUsageCount());
+        log.info("Discount {} applied", discountCode);
     }
     
     private String buildPriceBreakdown(BigDecimal basePrice, BigDecimal driverPrice,
                                        BigDecimal surgeCharge, BigDecimal weekendCharge,
-                                       BigDecimal peakHoursCharge, BigDecimal discountAmount,
-                                       long hours, long days) {
+                                       BigDecimal holidayCharge, BigDecimal peakHoursCharge,
+                                       BigDecimal discountAmount, long hours, long days) {
         StringBuilder breakdown = new StringBuilder();
         breakdown.append(String.format("Base Price (%d hours, %d days): $%.2f\n", 
                 hours, days, basePrice));
@@ -304,6 +396,9 @@ public class PricingService {
         if (weekendCharge.compareTo(BigDecimal.ZERO) > 0) {
             breakdown.append(String.format("Weekend Charge: $%.2f\n", weekendCharge));
         }
+        if (holidayCharge.compareTo(BigDecimal.ZERO) > 0) {
+            breakdown.append(String.format("Holiday Charge: $%.2f\n", holidayCharge));
+        }
         if (peakHoursCharge.compareTo(BigDecimal.ZERO) > 0) {
             breakdown.append(String.format("Peak Hours Charge: $%.2f\n", peakHoursCharge));
         }
@@ -0,0 +1,49 @@
+package com.mobility.platform.pricing.surge;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free sliding-window counter: a ring of {@link LongAdder} buckets, each stamped with the time slot it
+ * currently counts. A writer that lands in a slot still holding an expired stamp claims it with a CAS and
+ * clears it. An increment racing that rollover can be dropped, which is acceptable for a demand rate.
+ */
+final class DemandWindow {
+
+    private final long bucketMillis;
+    private final AtomicLongArray slots;
+    private final LongAdder[] counts;
+
+    DemandWindow(long bucketMillis, int buckets) {
+        this.bucketMillis = bucketMillis;
+        this.slots = new AtomicLongArray(buckets);
+        this.counts = new LongAdder[buckets];
+        for (int i = 0; i < buckets; i++) {
+            slots.set(i, -1);
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void add(long nowMillis, long amount) {
+        long slot = nowMillis / bucketMillis;
+        int index = (int) (slot % counts.length);
+        long stamped = slots.get(index);
+        if (stamped != slot && slots.compareAndSet(index, stamped, slot)) {
+            counts[index].reset();
+        }
+        counts[index].add(amount);
+    }
+
+    /** Total over the buckets still inside the window at {@code nowMillis}. */
+    long sum(long nowMillis) {
+        long slot = nowMillis / bucketMillis;
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            long stamped = slots.get(i);
+            if (stamped >= 0 && slot - stamped < counts.length) {
+                total += counts[i].sum();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,82 @@
+package com.mobility.platform.pricing.surge;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds {@link SurgeEngine} from {@code booking.created}, {@code booking.cancelled} and the aggregated
+ * {@code vehicle.search.demand} events on the {@code mobility.events} exchange. Every pricing-service instance
+ * binds its own anonymous queue, so each replica computes the same multipliers. Events without a vehicle type
+ * (e.g. from vehicles that could not be looked up) are ignored.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SurgeDemandListener {
+
+    private final SurgeEngine surgeEngine;
+    private final MessageConverter messageConverter;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(value = "mobility.events", type = ExchangeTypes.TOPIC),
+            key = {"booking.created", "booking.cancelled", "vehicle.search.demand"}))
+    public void onDemandEvent(Message message) {
+        String routingKey = message.getMessageProperties().getReceivedRoutingKey();
+        if (!(readPayload(message) instanceof Map<?, ?> data)) {
+            return;
+        }
+        switch (routingKey) {
+            case "booking.created" -> surgeEngine.recordBooking(
+                    text(data.get("vehicleType")), number(data.get("latitude")), number(data.get("longitude")));
+            case "booking.cancelled" -> surgeEngine.recordCancellation(
+                    text(data.get("vehicleType")), number(data.get("latitude")), number(data.get("longitude")));
+            case "vehicle.search.demand" -> {
+                if (data.get("cells") instanceof List<?> cells) {
+                    for (Object item : cells) {
+                        if (item instanceof Map<?, ?> cell && cell.get("cell") != null && cell.get("searches") != null) {
+                            surgeEngine.recordSearches(text(cell.get("vehicleType")),
+                                    number(cell.get("cell")).longValue(), number(cell.get("searches")).longValue());
+                        }
+                    }
+                }
+            }
+            default -> log.debug("Ignoring demand event {}", routingKey);
+        }
+    }
+
+    private Object readPayload(Message message) {
+        try {
+            return messageConverter.fromMessage(message);
+        } catch (Exception e) {
+            log.warn("Could not read demand event payload: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private Double number(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        try {
+            return value != null ? Double.valueOf(value.toString()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
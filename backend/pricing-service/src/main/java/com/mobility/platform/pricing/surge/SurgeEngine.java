@@ -0,0 +1,170 @@
+package com.mobility.platform.pricing.surge;
+
+import com.mobility.platform.common.geo.GeoCell;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Demand-driven surge multipliers per vehicle type and {@link GeoCell}, plus one type-wide figure for quotes
+ * without a location.
+ * <p>
+ * Bookings, cancellations and search volume land in lock-free sliding windows
+ * ({@code pricing.surge.window-seconds}). Every {@code pricing.surge.recompute-interval-ms} the weighted demand
+ * of each area is compared with its baseline; each baseline of excess demand adds {@code sensitivity} to the
+ * multiplier, capped at {@code max-multiplier}. The result is smoothed exponentially so one burst does not
+ * swing prices, and published as an immutable {@link Snapshot} that quotes read without locking. Areas with no
+ * recent demand drop out and price at 1.0.
+ */
+@Slf4j
+@Component
+public class SurgeEngine {
+
+    private static final long ALL_CELLS = -1;
+    private static final double SETTLED = 0.001;
+
+    private final boolean enabled;
+    private final long bucketMillis;
+    private final int buckets;
+    private final double searchWeight;
+    private final double cellBaseline;
+    private final double typeBaseline;
+    private final double sensitivity;
+    private final double maxMultiplier;
+    private final double smoothing;
+
+    private final ConcurrentHashMap<SurgeKey, DemandSignals> signals = new ConcurrentHashMap<>();
+    private volatile Snapshot current = new Snapshot(Map.of());
+
+    public SurgeEngine(@Value("${pricing.surge.enabled:true}") boolean enabled,
+                       @Value("${pricing.surge.window-seconds:900}") int windowSeconds,
+                       @Value("${pricing.surge.bucket-seconds:60}") int bucketSeconds,
+                       @Value("${pricing.surge.search-weight:0.05}") double searchWeight,
+                       @Value("${pricing.surge.cell-baseline:5}") double cellBaseline,
+                       @Value("${pricing.surge.type-baseline:50}") double typeBaseline,
+                       @Value("${pricing.surge.sensitivity:0.25}") double sensitivity,
+                       @Value("${pricing.surge.max-multiplier:2.0}") double maxMultiplier,
+                       @Value("${pricing.surge.smoothing:0.3}") double smoothing) {
+        this.enabled = enabled;
+        this.bucketMillis = Math.max(1, bucketSeconds) * 1000L;
+        this.buckets = Math.max(1, windowSeconds / Math.max(1, bucketSeconds));
+        this.searchWeight = searchWeight;
+        this.cellBaseline = Math.max(1e-9, cellBaseline);
+        this.typeBaseline = Math.max(1e-9, typeBaseline);
+        this.sensitivity = sensitivity;
+        this.maxMultiplier = Math.max(1.0, maxMultiplier);
+        this.smoothing = Math.min(1.0, Math.max(0.0, smoothing));
+    }
+
+    public void recordBooking(String vehicleType, Double latitude, Double longitude) {
+        record(vehicleType, latitude, longitude, signals -> signals.bookings);
+    }
+
+    public void recordCancellation(String vehicleType, Double latitude, Double longitude) {
+        record(vehicleType, latitude, longitude, signals -> signals.cancellations);
+    }
+
+    public void recordSearches(String vehicleType, long cell, long searches) {
+        if (!enabled || vehicleType == null || searches <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        signalsFor(vehicleType, cell).searches.add(now, searches);
+        signalsFor(vehicleType, ALL_CELLS).searches.add(now, searches);
+    }
+
+    /** The multipliers as of the last recompute; never changes after being returned. */
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${pricing.surge.recompute-interval-ms:5000}")
+    public void recompute() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Snapshot previous = current;
+        Map<SurgeKey, Double> multipliers = new HashMap<>();
+        for (Map.Entry<SurgeKey, DemandSignals> entry : signals.entrySet()) {
+            SurgeKey key = entry.getKey();
+            DemandSignals demand = entry.getValue();
+            long bookings = demand.bookings.sum(now);
+            long cancellations = demand.cancellations.sum(now);
+            long searches = demand.searches.sum(now);
+            double prior = previous.multipliers.getOrDefault(key, 1.0);
+            double smoothed = prior + smoothing * (target(key, bookings, cancellations, searches) - prior);
+            if (smoothed - 1.0 > SETTLED) {
+                multipliers.put(key, smoothed);
+            } else if (bookings == 0 && cancellations == 0 && searches == 0) {
+                signals.remove(key, demand);
+            }
+        }
+        current = new Snapshot(Map.copyOf(multipliers));
+        log.debug("Surge recomputed: {} areas tracked, {} surging", signals.size(), multipliers.size());
+    }
+
+    private double target(SurgeKey key, long bookings, long cancellations, long searches) {
+        double demand = Math.max(0, bookings - cancellations) + searchWeight * searches;
+        double baseline = key.cell() == ALL_CELLS ? typeBaseline : cellBaseline;
+        double multiplier = 1.0 + sensitivity * (demand / baseline - 1.0);
+        return Math.min(maxMultiplier, Math.max(1.0, multiplier));
+    }
+
+    private void record(String vehicleType, Double latitude, Double longitude,
+                        Function<DemandSignals, DemandWindow> window) {
+        if (!enabled || vehicleType == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (latitude != null && longitude != null) {
+            window.apply(signalsFor(vehicleType, GeoCell.of(latitude, longitude))).add(now, 1);
+        }
+        window.apply(signalsFor(vehicleType, ALL_CELLS)).add(now, 1);
+    }
+
+    private DemandSignals signalsFor(String vehicleType, long cell) {
+        return signals.computeIfAbsent(new SurgeKey(vehicleType, cell), key -> new DemandSignals(bucketMillis, buckets));
+    }
+
+    /** Immutable multipliers of one recompute. */
+    public static final class Snapshot {
+
+        private final Map<SurgeKey, Double> multipliers;
+
+        private Snapshot(Map<SurgeKey, Double> multipliers) {
+            this.multipliers = multipliers;
+        }
+
+        /** Multiplier for the cell containing the point, or the type-wide one when no point is given. */
+        public double multiplierFor(String vehicleType, Double latitude, Double longitude) {
+            if (vehicleType == null) {
+                return 1.0;
+            }
+            long cell = latitude != null && longitude != null ? GeoCell.of(latitude, longitude) : ALL_CELLS;
+            return multipliers.getOrDefault(new SurgeKey(vehicleType, cell), 1.0);
+        }
+    }
+
+    private record SurgeKey(String vehicleType, long cell) {
+    }
+
+    private static final class DemandSignals {
+
+        private final DemandWindow bookings;
+        private final DemandWindow cancellations;
+        private final DemandWindow searches;
+
+        private DemandSignals(long bucketMillis, int buckets) {
+            this.bookings = new DemandWindow(bucketMillis, buckets);
+            this.cancellations = new DemandWindow(bucketMillis, buckets);
+            this.searches = new DemandWindow(bucketMillis, buckets);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.mobility.platform.pricing.redemption;
+
+import com.mobility.platform.pricing.config.PricingSchemaInitializer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Races redemptions of one code from several ledger instances against a real PostgreSQL database, with
+ * reconciles re-splitting the budget underneath them, and checks that exactly {@code maxUsageCount} succeed.
+ * <p>
+ * Only runs when {@code PRICING_TEST_DB_URL} (plus {@code PRICING_TEST_DB_USERNAME}/{@code PRICING_TEST_DB_PASSWORD})
+ * is set; it works in a scratch schema that is dropped afterwards.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "PRICING_TEST_DB_URL", matches = ".+")
+class DiscountRedemptionLedgerPostgresTest {
+
+    private static final String SCHEMA = "pricing_redemption_test";
+    private static final int LEDGERS = 3;
+    private static final int THREADS = 32;
+    private static final int MAX_USAGE = 1000;
+    private static final int ATTEMPTS = 3000;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private final List<DiscountRedemptionLedger> ledgers = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() {
+        String url = System.getenv("PRICING_TEST_DB_URL");
+        new JdbcTemplate(new DriverManagerDataSource(url,
+                System.getenv("PRICING_TEST_DB_USERNAME"), System.getenv("PRICING_TEST_DB_PASSWORD")))
+                .execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE; CREATE SCHEMA " + SCHEMA);
+
+        String separator = url.contains("?") ? "&" : "?";
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url + separator + "currentSchema=" + SCHEMA + ",public");
+        dataSource.setUsername(System.getenv("PRICING_TEST_DB_USERNAME"));
+        dataSource.setPassword(System.getenv("PRICING_TEST_DB_PASSWORD"));
+        dataSource.setMaximumPoolSize(THREADS + LEDGERS);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Only the columns the ledger touches; the rest of the entity is irrelevant here
+        jdbcTemplate.execute("""
+                CREATE TABLE discounts (
+                    id bigint PRIMARY KEY,
+                    max_usage_count integer,
+                    current_usage_count integer,
+                    updated_at timestamp,
+                    version bigint NOT NULL DEFAULT 0
+                )""");
+        new PricingSchemaInitializer(jdbcTemplate).run();
+
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        for (int i = 0; i < LEDGERS; i++) {
+            ledgers.add(new DiscountRedemptionLedger(jdbcTemplate, transactionTemplate, 16));
+        }
+    }
+
+    @AfterAll
+    void dropSchema() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void concurrentRedemptionsTakeExactlyTheUsageLimit() throws Exception {
+        long discountId = 1;
+        jdbcTemplate.update("INSERT INTO discounts (id, max_usage_count, current_usage_count) VALUES (?, ?, 0)",
+                discountId, MAX_USAGE);
+
+        AtomicInteger redeemed = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + LEDGERS);
+        List<Future<?>> reconcilers = new ArrayList<>();
+        for (DiscountRedemptionLedger ledger : ledgers) {
+            reconcilers.add(executor.submit(() -> {
+                while (running.get()) {
+                    ledger.reconcile();
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> redemptions = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            DiscountRedemptionLedger ledger = ledgers.get(i % LEDGERS);
+            redemptions.add(executor.submit(() -> {
+                if (ledger.reserve(discountId)) {
+                    redeemed.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : redemptions) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        running.set(false);
+        for (Future<?> future : reconcilers) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        ledgers.get(0).reconcile();
+
+        assertThat(redeemed.get()).isEqualTo(MAX_USAGE);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT current_usage_count FROM discounts WHERE id = ?", Integer.class, discountId))
+                .isEqualTo(MAX_USAGE);
+        assertThat(ledgers.get(1).reserve(discountId)).isFalse();
+    }
+}
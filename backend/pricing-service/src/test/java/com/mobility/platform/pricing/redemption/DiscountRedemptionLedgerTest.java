@@ -0,0 +1,74 @@
+package com.mobility.platform.pricing.redemption;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DiscountRedemptionLedgerTest {
+
+    @Test
+    void capacitiesAddUpToRemainingBudget() {
+        for (int shards : new int[] {1, 2, 3, 7, 16}) {
+            for (long remaining : new long[] {1, 5, 16, 17, 100, 1_000_003}) {
+                assertThat(capacities(remaining, shards).sum())
+                        .as("%d uses over %d shards", remaining, shards)
+                        .isEqualTo(remaining);
+            }
+        }
+    }
+
+    @Test
+    void capacitiesDifferByAtMostOne() {
+        long[] capacities = capacities(100, 7).toArray();
+
+        assertThat(capacities).containsExactly(15, 15, 14, 14, 14, 14, 14);
+    }
+
+    @Test
+    void budgetSmallerThanShardCountGoesToLeadingShards() {
+        assertThat(capacities(3, 8).toArray()).containsExactly(1, 1, 1, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void exhaustedOrOverdrawnBudgetLeavesNoCapacity() {
+        assertThat(capacities(0, 4).toArray()).containsOnly(0);
+        assertThat(capacities(-5, 4).toArray()).containsOnly(0);
+    }
+
+    @Test
+    void spentCodeCostsTwoStatementsThenOne() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DiscountRedemptionLedger ledger = new DiscountRedemptionLedger(jdbcTemplate, mock(TransactionTemplate.class), 16);
+
+        assertThat(ledger.reserve(7L)).isFalse();
+        assertThat(ledger.reserve(7L)).isFalse();
+
+        verify(jdbcTemplate, times(1)).update(contains("shard = ? AND"), eq(7L), anyInt());
+        verify(jdbcTemplate, times(2)).update(contains("LIMIT 1 FOR UPDATE"), eq(7L), eq(7L));
+    }
+
+    @Test
+    void spentRandomShardFallsBackToAnyShardWithUsesLeft() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(contains("LIMIT 1 FOR UPDATE"), eq(7L), eq(7L))).thenReturn(1);
+        DiscountRedemptionLedger ledger = new DiscountRedemptionLedger(jdbcTemplate, mock(TransactionTemplate.class), 16);
+
+        assertThat(ledger.reserve(7L)).isTrue();
+    }
+
+    private static LongStream capacities(long remaining, int shards) {
+        return LongStream.range(0, shards)
+                .map(shard -> DiscountRedemptionLedger.shardCapacity(remaining, shards, (int) shard));
+    }
+}
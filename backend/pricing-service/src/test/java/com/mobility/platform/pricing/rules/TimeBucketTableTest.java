@@ -0,0 +1,95 @@
+package com.mobility.platform.pricing.rules;
+
+import com.mobility.platform.pricing.rules.TimeBucketTable.Exposure;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeBucketTableTest {
+
+    /** Friday weekend, as in Iran; 2026-03-27 (a Friday) is a holiday. */
+    private static final PricingCalendar CALENDAR =
+            new PricingCalendar(new String[] {"FRIDAY"}, new String[] {"2026-03-27"});
+    private static final LocalDate ORIGIN = LocalDate.of(2026, 3, 16); // Monday
+
+    @Test
+    void peakWindowWrapsPastMidnight() {
+        TimeBucketTable table = TimeBucketTable.build(rule(LocalTime.of(22, 0), LocalTime.of(2, 0)), CALENDAR, ORIGIN, 14);
+
+        Exposure exposure = table.exposure(at(16, 21, 30), at(17, 2, 30));
+
+        assertThat(exposure).isEqualTo(new Exposure(300, 0, 0, 240));
+    }
+
+    @Test
+    void weekendStartsAtMidnightMinuteExactly() {
+        TimeBucketTable table = TimeBucketTable.build(rule(LocalTime.of(22, 0), LocalTime.of(2, 0)), CALENDAR, ORIGIN, 14);
+
+        // Thursday 23:15 to Friday 00:45
+        Exposure exposure = table.exposure(at(19, 23, 15), at(20, 0, 45));
+
+        assertThat(exposure).isEqualTo(new Exposure(90, 45, 0, 90));
+    }
+
+    @Test
+    void holidayOnWeekendDayIsChargedAsHolidayOnly() {
+        TimeBucketTable table = TimeBucketTable.build(rule(null, null), CALENDAR, ORIGIN, 14);
+
+        Exposure exposure = table.exposure(at(27, 0, 0), at(28, 0, 0));
+
+        assertThat(exposure).isEqualTo(new Exposure(1440, 0, 1440, 0));
+    }
+
+    @Test
+    void windowsOutsideHorizonMatchPrefixLookups() {
+        CompiledPricingRule rule = rule(LocalTime.of(17, 30), LocalTime.of(20, 45));
+        TimeBucketTable covering = TimeBucketTable.build(rule, CALENDAR, ORIGIN, 30);
+        TimeBucketTable later = TimeBucketTable.build(rule, CALENDAR, ORIGIN.plusDays(20), 5);
+
+        for (int startHour = 0; startHour < 48; startHour += 7) {
+            for (int lengthMinutes : new int[] {1, 59, 61, 23 * 60 + 17, 9 * 24 * 60 + 5}) {
+                LocalDateTime start = ORIGIN.atStartOfDay().plusHours(startHour).plusMinutes(13);
+                LocalDateTime end = start.plusMinutes(lengthMinutes);
+                assertThat(later.exposure(start, end))
+                        .as("%s to %s", start, end)
+                        .isEqualTo(covering.exposure(start, end));
+            }
+        }
+    }
+
+    @Test
+    void countsWallClockMinutesAcrossClockChange() {
+        // Tehran moved its clocks forward at 2022-03-22T00:00 (its last DST change); quotes use wall-clock time,
+        // so a two-hour window over that night is priced as two hours
+        TimeBucketTable table = TimeBucketTable.build(rule(LocalTime.of(23, 0), LocalTime.of(1, 0)),
+                CALENDAR, LocalDate.of(2022, 3, 20), 7);
+
+        Exposure exposure = table.exposure(LocalDateTime.of(2022, 3, 21, 23, 0), LocalDateTime.of(2022, 3, 22, 1, 0));
+
+        assertThat(exposure).isEqualTo(new Exposure(120, 0, 0, 120));
+    }
+
+    @Test
+    void emptyOrReversedWindowHasNoExposure() {
+        TimeBucketTable table = TimeBucketTable.build(rule(LocalTime.of(8, 0), LocalTime.of(10, 0)), CALENDAR, ORIGIN, 14);
+
+        assertThat(table.exposure(at(18, 9, 0), at(18, 9, 0))).isEqualTo(new Exposure(0, 0, 0, 0));
+        assertThat(table.exposure(at(18, 9, 0), at(18, 8, 0))).isEqualTo(new Exposure(0, 0, 0, 0));
+    }
+
+    private static LocalDateTime at(int dayOfMarch, int hour, int minute) {
+        return LocalDateTime.of(2026, 3, dayOfMarch, hour, minute);
+    }
+
+    private static CompiledPricingRule rule(LocalTime peakStart, LocalTime peakEnd) {
+        return new CompiledPricingRule(1L, "CAR", 0, null, null,
+                BigDecimal.TEN, BigDecimal.valueOf(200), null, null,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                peakStart, peakEnd, 1, null, null);
+    }
+}
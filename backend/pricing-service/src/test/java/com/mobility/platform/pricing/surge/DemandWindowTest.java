@@ -0,0 +1,48 @@
+package com.mobility.platform.pricing.surge;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DemandWindowTest {
+
+    @Test
+    void sumsBucketsInsideWindow() {
+        DemandWindow window = new DemandWindow(1000, 3);
+        window.add(0, 5);
+        window.add(1_500, 2);
+        window.add(2_999, 1);
+
+        assertThat(window.sum(2_999)).isEqualTo(8);
+    }
+
+    @Test
+    void oldestBucketExpiresAsWindowSlides() {
+        DemandWindow window = new DemandWindow(1000, 3);
+        window.add(0, 5);
+        window.add(1_000, 2);
+        window.add(2_000, 1);
+
+        assertThat(window.sum(3_000)).isEqualTo(3);
+        assertThat(window.sum(4_000)).isEqualTo(1);
+        assertThat(window.sum(5_000)).isZero();
+    }
+
+    @Test
+    void reusedBucketStartsFromZero() {
+        DemandWindow window = new DemandWindow(1000, 3);
+        window.add(0, 5);
+        window.add(3_000, 4); // same ring slot as t=0, one full window later
+
+        assertThat(window.sum(3_000)).isEqualTo(4);
+    }
+
+    @Test
+    void idleWindowCountsNothingAfterLongGap() {
+        DemandWindow window = new DemandWindow(1000, 3);
+        window.add(0, 5);
+        window.add(2_000, 1);
+
+        assertThat(window.sum(60_000)).isZero();
+    }
+}
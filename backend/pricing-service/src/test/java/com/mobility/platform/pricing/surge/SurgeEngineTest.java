@@ -0,0 +1,99 @@
+package com.mobility.platform.pricing.surge;
+
+import com.mobility.platform.common.geo.GeoCell;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Multipliers from {@link SurgeEngine#recompute()} with the default tuning: cell baseline 5, type baseline 50,
+ * sensitivity 0.25, cap 2.0. Smoothing is 1.0 unless stated, so each recompute lands on its target.
+ */
+class SurgeEngineTest {
+
+    private static final double LAT = 35.7;
+    private static final double LON = 51.4;
+
+    @Test
+    void demandAboveCellBaselineRaisesMultiplier() {
+        SurgeEngine engine = engine(1.0);
+        book(engine, 10);
+
+        engine.recompute();
+
+        // 10 bookings against a cell baseline of 5: 1 + 0.25 * (10 / 5 - 1)
+        assertThat(engine.snapshot().multiplierFor("CAR", LAT, LON)).isCloseTo(1.25, within(1e-9));
+        // 10 against the type-wide baseline of 50 stays at the floor
+        assertThat(engine.snapshot().multiplierFor("CAR", null, null)).isEqualTo(1.0);
+        assertThat(engine.snapshot().multiplierFor("BIKE", LAT, LON)).isEqualTo(1.0);
+    }
+
+    @Test
+    void cancellationsOffsetBookings() {
+        SurgeEngine engine = engine(1.0);
+        book(engine, 10);
+        for (int i = 0; i < 10; i++) {
+            engine.recordCancellation("CAR", LAT, LON);
+        }
+
+        engine.recompute();
+
+        assertThat(engine.snapshot().multiplierFor("CAR", LAT, LON)).isEqualTo(1.0);
+    }
+
+    @Test
+    void multiplierIsCapped() {
+        SurgeEngine engine = engine(1.0);
+        book(engine, 100);
+
+        engine.recompute();
+
+        assertThat(engine.snapshot().multiplierFor("CAR", LAT, LON)).isCloseTo(2.0, within(1e-9));
+        // 100 against 50: 1 + 0.25 * (2 - 1)
+        assertThat(engine.snapshot().multiplierFor("CAR", null, null)).isCloseTo(1.25, within(1e-9));
+    }
+
+    @Test
+    void searchesCountAtTheirWeight() {
+        SurgeEngine engine = engine(1.0);
+        // 200 searches at weight 0.05 weigh as much as 10 bookings
+        engine.recordSearches("CAR", GeoCell.of(LAT, LON), 200);
+
+        engine.recompute();
+
+        assertThat(engine.snapshot().multiplierFor("CAR", LAT, LON)).isCloseTo(1.25, within(1e-9));
+    }
+
+    @Test
+    void recomputeSmoothsTowardsTarget() {
+        SurgeEngine engine = engine(0.5);
+        book(engine, 10);
+
+        engine.recompute();
+        assertThat(engine.snapshot().multiplierFor("CAR", LAT, LON)).isCloseTo(1.125, within(1e-9));
+
+        engine.recompute();
+        assertThat(engine.snapshot().multiplierFor("CAR", LAT, LON)).isCloseTo(1.1875, within(1e-9));
+    }
+
+    @Test
+    void disabledEngineNeverSurges() {
+        SurgeEngine engine = new SurgeEngine(false, 900, 60, 0.05, 5, 50, 0.25, 2.0, 1.0);
+        book(engine, 100);
+
+        engine.recompute();
+
+        assertThat(engine.snapshot().multiplierFor("CAR", LAT, LON)).isEqualTo(1.0);
+    }
+
+    private static SurgeEngine engine(double smoothing) {
+        return new SurgeEngine(true, 900, 60, 0.05, 5, 50, 0.25, 2.0, smoothing);
+    }
+
+    private static void book(SurgeEngine engine, int bookings) {
+        for (int i = 0; i < bookings; i++) {
+            engine.recordBooking("CAR", LAT, LON);
+        }
+    }
+}
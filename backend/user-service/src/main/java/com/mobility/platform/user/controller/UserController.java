@@ -15,6 +15,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * User REST controller
  */
@@ -50,6 +52,13 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    @PostMapping("/batch")
+    @Operation(summary = "Get users by IDs in one call (missing IDs are omitted)")
+    public ResponseEntity<ApiResponse<List<UserResponse>>> getUsersByIds(@RequestBody List<Long> ids) {
+        List<UserResponse> response = userService.getUsersByIds(ids);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
     @GetMapping("/email/{email}")
     @Operation(summary = "Get user by email")
     public ResponseEntity<ApiResponse<UserResponse>> getUserByEmail(@PathVariable String email) {
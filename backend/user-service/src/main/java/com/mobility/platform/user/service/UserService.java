@@ -17,8 +17,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -36,6 +39,8 @@ public class UserService {
     private final JwtUtil jwtUtil;
     private final EventPublisher eventPublisher;
     
+    private static final int MAX_BATCH_SIZE = 500;
+    
     @Transactional
     public AuthResponse register(UserRegistrationRequest request) {
         log.info("Registering new user with email: {}", request.getEmail());
@@ -128,6 +133,16 @@ public class UserService {
         return mapToResponse(user);
     }
     
+    public List<UserResponse> getUsersByIds(List<Long> ids) {
+        log.info("Fetching {} users by ID", ids.size());
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException("At most " + MAX_BATCH_SIZE + " users can be fetched per batch", "BATCH_TOO_LARGE");
+        }
+        return userRepository.findAllById(new LinkedHashSet<>(ids)).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+    
     public UserResponse getUserByEmail(String email) {
         log.info("Fetching user by email: {}", email);
         User user = userRepository.findByEmail(email)
@@ -186,6 +201,7 @@ public class UserService {
         }
         
         user = userRepository.save(user);
+        publishUserChanged("updated", user.getId());
         log.info("User updated successfully: {}", id);
         
         return mapToResponse(user);
@@ -200,10 +216,37 @@ public class UserService {
         
         user.setActive(false);
         userRepository.save(user);
+        publishUserChanged("deactivated", id);
         
         log.info("User deactivated successfully: {}", id);
     }
     
+    /**
+     * Lets consumers that cache user data (e.g. booking-service) invalidate their copy. Published once the
+     * surrounding transaction commits, so a consumer that reloads the user on the event sees the committed row.
+     */
+    private void publishUserChanged(String eventType, Long userId) {
+        Runnable publish = () -> {
+            try {
+                Map<String, Object> eventData = new HashMap<>();
+                eventData.put("userId", userId);
+                eventPublisher.publishUserEvent(eventType, eventData);
+            } catch (Exception e) {
+                log.warn("Failed to publish user {} event for user ID: {}. Error: {}", eventType, userId, e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+    
     private UserResponse mapToResponse(User user) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
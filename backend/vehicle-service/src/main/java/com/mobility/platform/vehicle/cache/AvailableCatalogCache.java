@@ -0,0 +1,147 @@
+package com.mobility.platform.vehicle.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mobility.platform.common.dto.ApiResponse;
+import com.mobility.platform.vehicle.dto.VehicleResponse;
+import com.mobility.platform.vehicle.geo.VehicleChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The {@code GET /available} and {@code GET /available/type/{type}} responses, kept as serialized JSON bytes
+ * with an ETag, so a hot catalog read is a byte-array write (or a 304).
+ * <p>
+ * Entries are dropped per vehicle type on {@link VehicleChangedEvent}s: the full catalog, the vehicle's
+ * current type and the type it was last cached under. Changes made on other instances arrive through
+ * {@link com.mobility.platform.vehicle.geo.VehicleIndexSynchronizer}. Telemetry moves vehicles without
+ * such events, so entries also expire after {@code vehicle.catalog.max-age-ms} to keep positions fresh.
+ */
+@Slf4j
+@Component
+public class AvailableCatalogCache {
+
+    private static final String ALL_TYPES = "*";
+
+    private final ObjectMapper objectMapper;
+    private final long maxAgeMillis;
+    private final int maxTypes;
+
+    private final Map<String, CatalogEntry> entries = new ConcurrentHashMap<>();
+    /** Type each vehicle in a cached entry was listed under, to find the entry to drop when it changes type. */
+    private final Map<Long, String> cachedTypes = new ConcurrentHashMap<>();
+    /** Bumped on every invalidation; a load that raced with one is served but not stored. */
+    private long generation;
+
+    public AvailableCatalogCache(ObjectMapper objectMapper,
+                                 @Value("${vehicle.catalog.max-age-ms:30000}") long maxAgeMillis,
+                                 @Value("${vehicle.catalog.max-types:64}") int maxTypes) {
+        this.objectMapper = objectMapper;
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxTypes = maxTypes;
+    }
+
+    /** Catalog of every available vehicle. */
+    public CatalogEntry getAll(Supplier<List<VehicleResponse>> loader) {
+        return get(ALL_TYPES, loader);
+    }
+
+    /** Catalog of the available vehicles of one type. */
+    public CatalogEntry getByType(String vehicleType, Supplier<List<VehicleResponse>> loader) {
+        return get(vehicleType, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onVehicleChanged(VehicleChangedEvent event) {
+        generation++;
+        entries.remove(ALL_TYPES);
+        String previousType = cachedTypes.remove(event.getVehicleId());
+        if (previousType != null) {
+            entries.remove(previousType);
+        }
+        if (event.getSnapshot() != null && event.getSnapshot().getVehicleType() != null) {
+            entries.remove(event.getSnapshot().getVehicleType());
+        }
+    }
+
+    private CatalogEntry get(String key, Supplier<List<VehicleResponse>> loader) {
+        CatalogEntry cached = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.loadedAt < maxAgeMillis) {
+            return cached;
+        }
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        List<VehicleResponse> vehicles = loader.get();
+        CatalogEntry fresh = serialize(vehicles, now);
+        synchronized (this) {
+            if (generation == loadGeneration && (entries.containsKey(key) || entries.size() < maxTypes)) {
+                entries.put(key, fresh);
+                for (VehicleResponse vehicle : vehicles) {
+                    if (vehicle.getVehicleType() != null) {
+                        cachedTypes.put(vehicle.getId(), vehicle.getVehicleType());
+                    }
+                }
+            }
+        }
+        return fresh;
+    }
+
+    private CatalogEntry serialize(List<VehicleResponse> vehicles, long loadedAt) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(ApiResponse.success(vehicles));
+            return new CatalogEntry(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"", loadedAt);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize vehicle catalog", e);
+        }
+    }
+
+    /** Serialized {@code ApiResponse<List<VehicleResponse>>} body and its strong ETag. */
+    public static final class CatalogEntry {
+
+        private final byte[] body;
+        private final String etag;
+        private final long loadedAt;
+
+        private CatalogEntry(byte[] body, String etag, long loadedAt) {
+            this.body = body;
+            this.etag = etag;
+            this.loadedAt = loadedAt;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /** True when an {@code If-None-Match} header value lists this entry's ETag (or is {@code *}). */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
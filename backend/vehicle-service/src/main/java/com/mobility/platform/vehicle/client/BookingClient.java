@@ -3,9 +3,12 @@ package com.mobility.platform.vehicle.client;
 import com.mobility.platform.common.dto.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Feign client for Booking Service
@@ -17,6 +20,10 @@ public interface BookingClient {
     ApiResponse<List<Long>> getBookedVehicleIds(
             @RequestParam("startDateTime") String startDateTime,
             @RequestParam("endDateTime") String endDateTime);
+    
+    /** Subset of the given vehicleIds booked in [startDateTime, endDateTime). */
+    @PostMapping("/booked-vehicles/check")
+    ApiResponse<List<Long>> checkBookedVehicles(@RequestBody Map<String, Object> request);
 }
 
 
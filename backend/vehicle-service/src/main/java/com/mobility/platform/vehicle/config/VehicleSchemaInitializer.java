@@ -0,0 +1,65 @@
+package com.mobility.platform.vehicle.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies PostgreSQL-specific schema objects that Hibernate's ddl-auto cannot express.
+ * Every statement is idempotent and failures are logged, not fatal, so startup never depends on them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VehicleSchemaInitializer implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Partial GiST index on the geography expression used by VehicleRepository's spatial queries. It serves
+     * ST_DWithin radius filters and {@code <->} nearest-neighbour ordering over rentable vehicles; the
+     * expression and predicate must stay identical to the queries for the planner to use it.
+     */
+    private static final String AVAILABLE_LOCATION_INDEX =
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_available_location_geog " +
+            "ON vehicles USING gist ((CAST(current_location AS geography))) " +
+            "WHERE status = 'AVAILABLE' AND available = true";
+
+    /** Partial index for the type-filtered listings and searches over rentable vehicles. */
+    private static final String AVAILABLE_TYPE_INDEX =
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_available_type " +
+            "ON vehicles (vehicle_type) " +
+            "WHERE status = 'AVAILABLE' AND available = true";
+
+    /**
+     * One-off backfill of vehicle_features for vehicles written before feature tags existed, using the same
+     * normalisation as VehicleFeatures. Vehicles that already have tags are left alone.
+     */
+    private static final String FEATURE_TAGS_BACKFILL = """
+            INSERT INTO vehicle_features (vehicle_id, feature)
+            SELECT DISTINCT v.id, left(lower(trim(f.tag)), 100)
+            FROM vehicles v
+            CROSS JOIN LATERAL regexp_split_to_table(regexp_replace(v.features, '[\\[\\]"]', '', 'g'), ',') AS f(tag)
+            WHERE v.features IS NOT NULL
+              AND trim(f.tag) <> ''
+              AND NOT EXISTS (SELECT 1 FROM vehicle_features vf WHERE vf.vehicle_id = v.id)
+            """;
+
+    @Override
+    public void run(String... args) {
+        execute("available-vehicle geography index", AVAILABLE_LOCATION_INDEX);
+        execute("available-vehicle type index", AVAILABLE_TYPE_INDEX);
+        execute("vehicle feature tags backfill", FEATURE_TAGS_BACKFILL);
+    }
+
+    private void execute(String description, String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+            log.info("Ensured {}", description);
+        } catch (Exception e) {
+            log.warn("Could not apply {}: {}", description, e.getMessage());
+        }
+    }
+}
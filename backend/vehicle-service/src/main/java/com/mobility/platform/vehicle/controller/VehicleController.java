@@ -3,11 +3,18 @@ package com.mobility.platform.vehicle.controller;
 import com.mobility.platform.common.dto.ApiResponse;
 import com.mobility.platform.common.dto.PageResponse;
 import com.mobility.platform.common.enums.VehicleStatus;
+import com.mobility.platform.vehicle.cache.AvailableCatalogCache;
+import com.mobility.platform.vehicle.cache.AvailableCatalogCache.CatalogEntry;
 import com.mobility.platform.vehicle.dto.LocationSearchRequest;
+import com.mobility.platform.vehicle.dto.TelemetryBatchRequest;
+import com.mobility.platform.vehicle.dto.VehicleFacetSearchRequest;
+import com.mobility.platform.vehicle.dto.VehicleFacetSearchResponse;
 import com.mobility.platform.vehicle.dto.VehicleRequest;
 import com.mobility.platform.vehicle.dto.VehicleResponse;
+import com.mobility.platform.vehicle.dto.VehicleStatusBatchRequest;
 import com.mobility.platform.vehicle.service.StorageService;
 import com.mobility.platform.vehicle.service.VehicleService;
+import com.mobility.platform.vehicle.telemetry.LocationTelemetryBuffer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,6 +22,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -34,6 +43,8 @@ public class VehicleController {
     
     private final VehicleService vehicleService;
     private final StorageService storageService;
+    private final LocationTelemetryBuffer locationTelemetryBuffer;
+    private final AvailableCatalogCache availableCatalogCache;
     
     @PostMapping(value = "/upload-image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload vehicle image to storage")
@@ -60,6 +71,13 @@ public class VehicleController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    @PostMapping("/batch")
+    @Operation(summary = "Get vehicles by IDs in one call (missing IDs are omitted)")
+    public ResponseEntity<ApiResponse<List<VehicleResponse>>> getVehiclesByIds(@RequestBody List<Long> ids) {
+        List<VehicleResponse> response = vehicleService.getVehiclesByIds(ids);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
     @GetMapping("/number/{vehicleNumber}")
     @Operation(summary = "Get vehicle by vehicle number")
     public ResponseEntity<ApiResponse<VehicleResponse>> getVehicleByNumber(
@@ -77,18 +95,19 @@ public class VehicleController {
     }
     
     @GetMapping("/available")
-    @Operation(summary = "Get all available vehicles")
-    public ResponseEntity<ApiResponse<List<VehicleResponse>>> getAvailableVehicles() {
-        List<VehicleResponse> response = vehicleService.getAvailableVehicles();
-        return ResponseEntity.ok(ApiResponse.success(response));
+    @Operation(summary = "Get all available vehicles (cached; supports If-None-Match)")
+    public ResponseEntity<byte[]> getAvailableVehicles(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogResponse(availableCatalogCache.getAll(vehicleService::getAvailableVehicles), ifNoneMatch);
     }
     
     @GetMapping("/available/type/{vehicleType}")
-    @Operation(summary = "Get available vehicles by type")
-    public ResponseEntity<ApiResponse<List<VehicleResponse>>> getAvailableVehiclesByType(
-            @PathVariable String vehicleType) {
-        List<VehicleResponse> response = vehicleService.getAvailableVehiclesByType(vehicleType);
-        return ResponseEntity.ok(ApiResponse.success(response));
+    @Operation(summary = "Get available vehicles by type (cached; supports If-None-Match)")
+    public ResponseEntity<byte[]> getAvailableVehiclesByType(
+            @PathVariable String vehicleType,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogResponse(availableCatalogCache.getByType(vehicleType,
+                () -> vehicleService.getAvailableVehiclesByType(vehicleType)), ifNoneMatch);
     }
     
     @PostMapping("/search/location")
@@ -99,6 +118,39 @@ public class VehicleController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    @PostMapping("/search/facets")
+    @Operation(summary = "Faceted search over available vehicles with facet counts")
+    public ResponseEntity<ApiResponse<VehicleFacetSearchResponse>> facetedSearch(
+            @Valid @RequestBody VehicleFacetSearchRequest request) {
+        VehicleFacetSearchResponse response = vehicleService.facetedSearch(request);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    @GetMapping("/search/text")
+    @Operation(summary = "Ranked, prefix-matching text search (brand, model, plate, address, description, features)")
+    public ResponseEntity<ApiResponse<PageResponse<VehicleResponse>>> searchByText(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "false") boolean availableOnly,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        PageResponse<VehicleResponse> response = vehicleService.searchByText(query, availableOnly, page, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    @GetMapping("/search/nearby")
+    @Operation(summary = "Cursor-paginated nearby search ordered by distance")
+    public ResponseEntity<ApiResponse<PageResponse<VehicleResponse>>> searchNearby(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) String vehicleType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        PageResponse<VehicleResponse> response = vehicleService.searchNearby(
+                latitude, longitude, radiusKm, vehicleType, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
     @GetMapping("/nearest")
     @Operation(summary = "Get nearest vehicles to a location")
     public ResponseEntity<ApiResponse<List<VehicleResponse>>> getNearestVehicles(
@@ -119,14 +171,23 @@ public class VehicleController {
     }
     
     @PatchMapping("/{id}/status")
-    @Operation(summary = "Update vehicle status")
+    @Operation(summary = "Update vehicle status (optionally only if it is still expectedStatus)")
     public ResponseEntity<ApiResponse<VehicleResponse>> updateVehicleStatus(
             @PathVariable Long id,
-            @RequestParam VehicleStatus status) {
-        VehicleResponse response = vehicleService.updateVehicleStatus(id, status);
+            @RequestParam VehicleStatus status,
+            @RequestParam(required = false) VehicleStatus expectedStatus) {
+        VehicleResponse response = vehicleService.updateVehicleStatus(id, status, expectedStatus);
         return ResponseEntity.ok(ApiResponse.success("Vehicle status updated successfully", response));
     }
     
+    @PatchMapping("/status/batch")
+    @Operation(summary = "Update the status of many vehicles in one transaction (unmet or unknown updates are skipped)")
+    public ResponseEntity<ApiResponse<List<VehicleResponse>>> updateVehicleStatuses(
+            @Valid @RequestBody VehicleStatusBatchRequest request) {
+        List<VehicleResponse> response = vehicleService.updateVehicleStatuses(request.getUpdates());
+        return ResponseEntity.ok(ApiResponse.success("Vehicle statuses updated successfully", response));
+    }
+    
     @PatchMapping("/{id}/location")
     @Operation(summary = "Update vehicle location")
     public ResponseEntity<ApiResponse<VehicleResponse>> updateVehicleLocation(
@@ -138,6 +199,15 @@ public class VehicleController {
         return ResponseEntity.ok(ApiResponse.success("Vehicle location updated successfully", response));
     }
     
+    @PostMapping("/telemetry/locations")
+    @Operation(summary = "Ingest a batch of GPS pings (coalesced per vehicle and written asynchronously)")
+    public ResponseEntity<ApiResponse<Integer>> ingestLocationTelemetry(
+            @Valid @RequestBody TelemetryBatchRequest request) {
+        int accepted = locationTelemetryBuffer.offer(request.getPings());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Telemetry accepted", accepted));
+    }
+    
     @PatchMapping("/{id}/rating")
     @Operation(summary = "Update vehicle rating and total reviews (e.g. after a new review)")
     public ResponseEntity<ApiResponse<VehicleResponse>> updateVehicleRating(
@@ -163,6 +233,20 @@ public class VehicleController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    private ResponseEntity<byte[]> catalogResponse(CatalogEntry catalog, String ifNoneMatch) {
+        if (catalog.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(catalog.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(catalog.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(catalog.getBody());
+    }
+    
     @GetMapping("/health")
     @Operation(summary = "Health check")
     public ResponseEntity<ApiResponse<String>> health() {
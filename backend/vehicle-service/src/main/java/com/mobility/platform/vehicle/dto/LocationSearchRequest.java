@@ -1,5 +1,8 @@
 package com.mobility.platform.vehicle.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
@@ -17,6 +20,8 @@ public class LocationSearchRequest {
     @NotNull(message = "Longitude is required")
     private Double longitude;
     
+    @DecimalMin(value = "0.0", inclusive = false, message = "Radius must be positive")
+    @DecimalMax(value = "50.0", message = "Radius must be at most 50 km")
     private Double radiusKm = 5.0; // Default 5km radius
     
     private String vehicleType;
@@ -27,6 +32,13 @@ public class LocationSearchRequest {
     private LocalDateTime startDateTime;
     
     private LocalDateTime endDateTime;
+    
+    // Pagination over the distance-ordered results (size is capped server-side)
+    @Min(value = 0, message = "Page must not be negative")
+    private Integer page = 0;
+    
+    @Min(value = 1, message = "Size must be at least 1")
+    private Integer size;
 }
 
 
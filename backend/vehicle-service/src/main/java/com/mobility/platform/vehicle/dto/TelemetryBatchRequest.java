@@ -0,0 +1,19 @@
+package com.mobility.platform.vehicle.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Batch of GPS fixes, typically everything a gateway collected since its last upload
+ */
+@Data
+public class TelemetryBatchRequest {
+    
+    @NotEmpty(message = "At least one ping is required")
+    @Size(max = 5000, message = "At most 5000 pings per batch")
+    private List<@Valid TelemetryPing> pings;
+}
@@ -0,0 +1,31 @@
+package com.mobility.platform.vehicle.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One GPS fix reported by a connected vehicle
+ */
+@Data
+public class TelemetryPing {
+    
+    @NotNull(message = "Vehicle ID is required")
+    private Long vehicleId;
+    
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+    
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+    
+    // Device time of the fix; defaults to the time it was received
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,43 @@
+package com.mobility.platform.vehicle.dto;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Faceted search over available vehicles. Every criterion is optional; features must all be present,
+ * fuel types and transmissions match any of the listed values.
+ */
+@Data
+public class VehicleFacetSearchRequest {
+    
+    private List<String> features;
+    
+    private List<String> fuelTypes;
+    
+    private List<String> transmissions;
+    
+    private String vehicleType;
+    
+    @Min(value = 1, message = "Minimum seats must be at least 1")
+    private Integer minSeats;
+    
+    private BigDecimal minPricePerDay;
+    
+    private BigDecimal maxPricePerDay;
+    
+    // Optional location filter; results are then ordered by distance
+    private Double latitude;
+    
+    private Double longitude;
+    
+    private Double radiusKm;
+    
+    @Min(value = 0, message = "Page must not be negative")
+    private Integer page = 0;
+    
+    @Min(value = 1, message = "Size must be at least 1")
+    private Integer size;
+}
@@ -0,0 +1,27 @@
+package com.mobility.platform.vehicle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of faceted search results plus facet counts over all matches
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleFacetSearchResponse {
+    
+    private List<VehicleResponse> vehicles;
+    private int pageNumber;
+    private int pageSize;
+    private long totalElements;
+    
+    // facet name (features, fuelType, transmission, vehicleType, seatingCapacity) -> value -> matching vehicles
+    private Map<String, Map<String, Long>> facets;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Vehicle response DTO
@@ -36,6 +37,7 @@ public class VehicleResponse {
     private String imageUrl;
     private String description;
     private String features;
+    private List<String> featureTags; // normalised from features
     private Boolean available;
     private Boolean requiresDriver;
     private BigDecimal driverPricePerHour;
@@ -0,0 +1,34 @@
+package com.mobility.platform.vehicle.dto;
+
+import com.mobility.platform.common.enums.VehicleStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Status changes for many vehicles, applied in one transaction
+ */
+@Data
+public class VehicleStatusBatchRequest {
+    
+    @NotEmpty(message = "At least one update is required")
+    @Size(max = 500, message = "At most 500 updates per batch")
+    private List<@Valid StatusUpdate> updates;
+    
+    @Data
+    public static class StatusUpdate {
+        
+        @NotNull(message = "Vehicle ID is required")
+        private Long vehicleId;
+        
+        @NotNull(message = "Status is required")
+        private VehicleStatus status;
+        
+        // Optional compare-and-set precondition: apply only while the vehicle is still in this status
+        private VehicleStatus expectedStatus;
+    }
+}
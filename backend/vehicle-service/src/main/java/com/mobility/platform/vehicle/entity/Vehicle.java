@@ -7,9 +7,12 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.locationtech.jts.geom.Point;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Vehicle entity with PostGIS location support
@@ -85,6 +88,16 @@ public class Vehicle extends BaseEntity {
     @Column(length = 1000)
     private String features; // JSON string or comma-separated features
     
+    // Normalised tags parsed from features (see VehicleFeatures), queryable through vehicle_features
+    @ElementCollection
+    @CollectionTable(name = "vehicle_features",
+            joinColumns = @JoinColumn(name = "vehicle_id"),
+            indexes = @Index(name = "idx_vehicle_features_feature", columnList = "feature, vehicle_id"))
+    @Column(name = "feature", nullable = false, length = 100)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<String> featureTags = new HashSet<>();
+    
     @Column(nullable = false)
     private Boolean available = true;
     
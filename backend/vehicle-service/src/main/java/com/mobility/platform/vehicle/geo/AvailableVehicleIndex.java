@@ -0,0 +1,341 @@
+package com.mobility.platform.vehicle.geo;
+
+import com.mobility.platform.common.enums.VehicleStatus;
+import com.mobility.platform.vehicle.dto.VehicleResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory spatial index of AVAILABLE vehicles, bucketed into a fixed lat/lon grid
+ * ({@code vehicle.geo-index.cell-degrees}, about 1.1 km at the default 0.01).
+ * <p>
+ * Radius queries scan only the occupied cells overlapping the search circle's bounding box; k-nearest queries scan rings
+ * of cells outwards until the k-th best distance is inside the area already covered. Each entry holds an
+ * immutable {@link VehicleResponse} snapshot, so results need no database access. The index is kept current
+ * from {@link VehicleChangedEvent}s on this instance and from vehicle events of other instances
+ * ({@link VehicleIndexSynchronizer}), and is rebuilt from the database on start-up and periodically.
+ * Queries return empty until the first load completes so callers can fall back to PostGIS.
+ */
+@Slf4j
+@Component
+public class AvailableVehicleIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private final boolean enabled;
+    private final double cellDegrees;
+
+    private volatile Grid grid;
+
+    /** Changes applied while a rebuild is loading; replayed onto the fresh grid before it is swapped in. */
+    private List<VehicleChangedEvent> journal;
+
+    public AvailableVehicleIndex(@Value("${vehicle.geo-index.enabled:true}") boolean enabled,
+                                 @Value("${vehicle.geo-index.cell-degrees:0.01}") double cellDegrees) {
+        this.enabled = enabled;
+        this.cellDegrees = cellDegrees;
+    }
+
+    /** Available vehicles within {@code radiusKm}, nearest first, optionally of one type. */
+    public Optional<List<VehicleResponse>> findWithinRadius(double latitude, double longitude, double radiusKm,
+                                                            String vehicleType) {
+        Grid current = grid;
+        if (!enabled || current == null) {
+            return Optional.empty();
+        }
+        double latSpan = radiusKm / KM_PER_DEGREE_LAT;
+        double lonSpan = radiusKm / (KM_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+        // Clamped to the occupied extent, so a wide radius never walks empty cells
+        int minRow = Math.max(current.row(latitude - latSpan), current.minRow);
+        int maxRow = Math.min(current.row(latitude + latSpan), current.maxRow);
+        int minCol = Math.max(current.col(longitude - lonSpan), current.minCol);
+        int maxCol = Math.min(current.col(longitude + lonSpan), current.maxCol);
+
+        List<Hit> hits = new ArrayList<>();
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                for (Entry entry : current.cell(row, col)) {
+                    if (vehicleType != null && !vehicleType.equals(entry.snapshot.getVehicleType())) {
+                        continue;
+                    }
+                    double distance = distanceKm(latitude, longitude, entry.latitude, entry.longitude);
+                    if (distance <= radiusKm) {
+                        hits.add(new Hit(entry, distance));
+                    }
+                }
+            }
+        }
+        hits.sort(HIT_ORDER);
+        return Optional.of(toResponses(hits));
+    }
+
+    /** The {@code limit} available vehicles nearest to the point, nearest first. */
+    public Optional<List<VehicleResponse>> findNearest(double latitude, double longitude, int limit) {
+        return findNearest(latitude, longitude, limit, Double.POSITIVE_INFINITY, null, null);
+    }
+
+    /**
+     * Top-{@code limit} available vehicles within {@code maxDistanceKm}, ordered by (distance, id) and
+     * strictly after {@code after} when given, so successive calls page through results by keyset. Only a
+     * bounded heap of {@code limit} hits is kept, however many vehicles are in range.
+     */
+    public Optional<List<VehicleResponse>> findNearest(double latitude, double longitude, int limit,
+                                                       double maxDistanceKm, String vehicleType,
+                                                       NearestPosition after) {
+        Grid current = grid;
+        if (!enabled || current == null) {
+            return Optional.empty();
+        }
+        if (limit <= 0) {
+            return Optional.of(List.of());
+        }
+        // Max-heap of the best `limit` hits seen so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(HIT_ORDER.reversed());
+        int centerRow = current.row(latitude);
+        int centerCol = current.col(longitude);
+        double ringKm = cellDegrees * KM_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+        int maxRing = current.maxRing(centerRow, centerCol);
+        if (maxDistanceKm < maxRing * ringKm) {
+            maxRing = (int) Math.ceil(maxDistanceKm / ringKm) + 1;
+        }
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                for (int col = centerCol - ring; col <= centerCol + ring; col++) {
+                    if (Math.abs(row - centerRow) != ring && Math.abs(col - centerCol) != ring) {
+                        continue; // inner cells were scanned by earlier rings
+                    }
+                    for (Entry entry : current.cell(row, col)) {
+                        if (vehicleType != null && !vehicleType.equals(entry.snapshot.getVehicleType())) {
+                            continue;
+                        }
+                        Hit hit = new Hit(entry, distanceKm(latitude, longitude, entry.latitude, entry.longitude));
+                        if (hit.distanceKm() > maxDistanceKm || (after != null && !after.isBefore(hit))) {
+                            continue;
+                        }
+                        best.add(hit);
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+            // Everything within `ring` full cells of the centre has now been seen
+            if (best.size() == limit && best.peek().distanceKm() <= ring * ringKm) {
+                break;
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(HIT_ORDER);
+        return Optional.of(toResponses(hits));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        synchronized (this) {
+            if (grid != null) {
+                grid.apply(event);
+            }
+            if (journal != null) {
+                journal.add(event);
+            }
+        }
+    }
+
+    /**
+     * Moves an indexed vehicle to a new position without a database round-trip. Vehicles that are not in the
+     * index (not available, or not loaded yet) are ignored; their next full snapshot carries the location.
+     */
+    public synchronized void onVehicleMoved(Long vehicleId, double latitude, double longitude) {
+        Grid current = grid;
+        Entry entry = current != null ? current.entries.get(vehicleId) : null;
+        if (entry == null) {
+            return;
+        }
+        VehicleResponse moved = new VehicleResponse();
+        BeanUtils.copyProperties(entry.snapshot, moved);
+        moved.setLatitude(latitude);
+        moved.setLongitude(longitude);
+        VehicleChangedEvent event = new VehicleChangedEvent(vehicleId, moved);
+        current.apply(event);
+        if (journal != null) {
+            journal.add(event);
+        }
+    }
+
+    /** Replaces the index with the given AVAILABLE vehicles, keeping changes that arrive meanwhile. */
+    public void rebuild(Supplier<Collection<VehicleResponse>> loader) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        try {
+            Grid fresh = new Grid(cellDegrees);
+            loader.get().forEach(fresh::upsert);
+            synchronized (this) {
+                journal.forEach(fresh::apply);
+                grid = fresh;
+            }
+            log.info("Available-vehicle index loaded with {} vehicles", fresh.entries.size());
+        } finally {
+            synchronized (this) {
+                journal = null;
+            }
+        }
+    }
+
+    private List<VehicleResponse> toResponses(List<Hit> hits) {
+        List<VehicleResponse> responses = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            VehicleResponse response = new VehicleResponse();
+            BeanUtils.copyProperties(hit.entry().snapshot, response);
+            response.setDistanceKm(hit.distanceKm());
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private static final Comparator<Hit> HIT_ORDER = Comparator
+            .comparingDouble(Hit::distanceKm)
+            .thenComparingLong(hit -> hit.entry().snapshot.getId());
+
+    private record Hit(Entry entry, double distanceKm) {
+    }
+
+    /** Keyset position (distance, vehicle id) of the last result a client has seen. */
+    public record NearestPosition(double distanceKm, long vehicleId) {
+
+        private boolean isBefore(Hit hit) {
+            int byDistance = Double.compare(distanceKm, hit.distanceKm());
+            return byDistance < 0 || (byDistance == 0 && vehicleId < hit.entry().snapshot.getId());
+        }
+    }
+
+    private static final class Entry {
+
+        private final VehicleResponse snapshot;
+        private final double latitude;
+        private final double longitude;
+        private final long cellKey;
+
+        private Entry(VehicleResponse snapshot, long cellKey) {
+            this.snapshot = snapshot;
+            this.latitude = snapshot.getLatitude();
+            this.longitude = snapshot.getLongitude();
+            this.cellKey = cellKey;
+        }
+    }
+
+    private static final class Grid {
+
+        private final double cellDegrees;
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Entry>> cells = new ConcurrentHashMap<>();
+        private volatile int minRow = Integer.MAX_VALUE;
+        private volatile int maxRow = Integer.MIN_VALUE;
+        private volatile int minCol = Integer.MAX_VALUE;
+        private volatile int maxCol = Integer.MIN_VALUE;
+
+        private Grid(double cellDegrees) {
+            this.cellDegrees = cellDegrees;
+        }
+
+        private void apply(VehicleChangedEvent event) {
+            if (event.getSnapshot() == null) {
+                remove(event.getVehicleId());
+            } else {
+                upsert(event.getSnapshot());
+            }
+        }
+
+        private void upsert(VehicleResponse vehicle) {
+            if (!isIndexable(vehicle)) {
+                remove(vehicle.getId());
+                return;
+            }
+            VehicleResponse snapshot = new VehicleResponse();
+            BeanUtils.copyProperties(vehicle, snapshot);
+            snapshot.setDistanceKm(null);
+            int row = row(snapshot.getLatitude());
+            int col = col(snapshot.getLongitude());
+            Entry entry = new Entry(snapshot, key(row, col));
+
+            remove(snapshot.getId());
+            cells.computeIfAbsent(entry.cellKey, k -> ConcurrentHashMap.newKeySet()).add(entry);
+            entries.put(snapshot.getId(), entry);
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+        }
+
+        private void remove(Long vehicleId) {
+            Entry previous = entries.remove(vehicleId);
+            if (previous != null) {
+                Set<Entry> cell = cells.get(previous.cellKey);
+                if (cell != null) {
+                    cell.remove(previous);
+                }
+            }
+        }
+
+        private Collection<Entry> cell(int row, int col) {
+            Set<Entry> cell = cells.get(key(row, col));
+            return cell != null ? cell : List.of();
+        }
+
+        /** Ring count after which every occupied cell has been visited from (row, col). */
+        private int maxRing(int row, int col) {
+            if (entries.isEmpty()) {
+                return 0;
+            }
+            return Math.max(Math.max(Math.abs(row - minRow), Math.abs(row - maxRow)),
+                    Math.max(Math.abs(col - minCol), Math.abs(col - maxCol)));
+        }
+
+        private int row(double latitude) {
+            return (int) Math.floor(latitude / cellDegrees);
+        }
+
+        private int col(double longitude) {
+            return (int) Math.floor(longitude / cellDegrees);
+        }
+
+        private static long key(int row, int col) {
+            return ((long) row << 32) | (col & 0xffffffffL);
+        }
+
+        private static boolean isIndexable(VehicleResponse vehicle) {
+            return vehicle.getStatus() == VehicleStatus.AVAILABLE
+                    && Boolean.TRUE.equals(vehicle.getAvailable())
+                    && vehicle.getLatitude() != null
+                    && vehicle.getLongitude() != null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.mobility.platform.vehicle.geo;
+
+import com.mobility.platform.vehicle.dto.VehicleResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event raised after a vehicle is written or deleted; listeners receive it once the transaction
+ * commits. {@code snapshot} is null for deletions.
+ */
+@Getter
+@AllArgsConstructor
+public class VehicleChangedEvent {
+
+    private final Long vehicleId;
+    private final VehicleResponse snapshot;
+}
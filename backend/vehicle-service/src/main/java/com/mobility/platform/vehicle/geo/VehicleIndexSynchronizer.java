@@ -0,0 +1,124 @@
+package com.mobility.platform.vehicle.geo;
+
+import com.mobility.platform.vehicle.dto.VehicleResponse;
+import com.mobility.platform.vehicle.search.VehicleFacetIndex;
+import com.mobility.platform.vehicle.search.VehicleTextIndex;
+import com.mobility.platform.vehicle.service.VehicleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@link AvailableVehicleIndex}, {@link VehicleFacetIndex} and {@link VehicleTextIndex} in step with the
+ * database: full loads on start-up and every {@code vehicle.geo-index.resync-interval-ms}, plus per-vehicle
+ * refreshes for the {@code vehicle.vehicle.*} events published by any vehicle-service instance, and in-place
+ * moves for {@code vehicle.location.batch} telemetry flushes. Each instance binds its own anonymous queues.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VehicleIndexSynchronizer {
+
+    private final AvailableVehicleIndex availableVehicleIndex;
+    private final VehicleFacetIndex vehicleFacetIndex;
+    private final VehicleTextIndex vehicleTextIndex;
+    private final VehicleService vehicleService;
+    private final MessageConverter messageConverter;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${vehicle.geo-index.resync-interval-ms:300000}")
+    public void resync() {
+        try {
+            // One load feeds both indexes; nesting keeps both journals open for the whole load
+            vehicleFacetIndex.rebuild(() -> {
+                List<VehicleResponse> vehicles = new ArrayList<>();
+                availableVehicleIndex.rebuild(() -> {
+                    vehicles.addAll(vehicleService.getAvailableVehicles());
+                    return vehicles;
+                });
+                return vehicles;
+            });
+        } catch (Exception e) {
+            log.error("Failed to rebuild available-vehicle indexes", e);
+        }
+        try {
+            vehicleTextIndex.rebuild(vehicleService::getAllVehiclesForIndexing);
+        } catch (Exception e) {
+            log.error("Failed to rebuild vehicle text index", e);
+        }
+    }
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(value = "mobility.events", type = ExchangeTypes.TOPIC),
+            key = "vehicle.vehicle.#"))
+    public void onVehicleEvent(Message message) {
+        List<Long> vehicleIds = extractVehicleIds(message);
+        if (vehicleIds.isEmpty()) {
+            return;
+        }
+        // VehicleService publishes these after commit, so the lookup sees the committed rows; batch events
+        // (vehicle.status.batch-updated) are refreshed with one lookup
+        Map<Long, VehicleResponse> snapshots = new HashMap<>();
+        vehicleService.getVehiclesByIds(vehicleIds).forEach(vehicle -> snapshots.put(vehicle.getId(), vehicle));
+        // Outside a transaction, so every VehicleChangedEvent listener (index, catalog cache) runs immediately;
+        // IDs that no longer resolve are deletions
+        for (Long vehicleId : vehicleIds) {
+            applicationEventPublisher.publishEvent(new VehicleChangedEvent(vehicleId, snapshots.get(vehicleId)));
+        }
+    }
+
+    /** Coalesced telemetry flushes from any instance: move the vehicles in place, no lookups needed. */
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(value = "mobility.events", type = ExchangeTypes.TOPIC),
+            key = "vehicle.location.batch"))
+    public void onLocationBatch(Message message) {
+        try {
+            Object payload = messageConverter.fromMessage(message);
+            if (payload instanceof Map<?, ?> data && data.get("locations") instanceof List<?> locations) {
+                for (Object item : locations) {
+                    if (item instanceof Map<?, ?> location) {
+                        availableVehicleIndex.onVehicleMoved(
+                                Long.valueOf(location.get("vehicleId").toString()),
+                                ((Number) location.get("latitude")).doubleValue(),
+                                ((Number) location.get("longitude")).doubleValue());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not apply vehicle location batch: {}", e.getMessage());
+        }
+    }
+
+    private List<Long> extractVehicleIds(Message message) {
+        try {
+            Object payload = messageConverter.fromMessage(message);
+            if (payload instanceof Map<?, ?> data) {
+                if (data.get("vehicleIds") instanceof List<?> ids) {
+                    return ids.stream().map(id -> Long.valueOf(id.toString())).toList();
+                }
+                if (data.get("vehicleId") != null) {
+                    return List.of(Long.valueOf(data.get("vehicleId").toString()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not read vehicle event payload: {}", e.getMessage());
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,11 @@
+package com.mobility.platform.vehicle.repository;
+
+/**
+ * Vehicle ID with its PostGIS-computed distance from a search point.
+ */
+public interface VehicleDistance {
+
+    Long getId();
+
+    Double getDistanceMeters();
+}
@@ -3,11 +3,16 @@ package com.mobility.platform.vehicle.repository;
 import com.mobility.platform.common.enums.VehicleStatus;
 import com.mobility.platform.vehicle.entity.Vehicle;
 import org.locationtech.jts.geom.Point;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,10 +35,41 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     @Query("SELECT v FROM Vehicle v WHERE v.status = 'AVAILABLE' AND v.available = true")
     List<Vehicle> findAvailableVehicles();
     
+    @Query("SELECT v.status FROM Vehicle v WHERE v.id = :id")
+    Optional<VehicleStatus> findStatusById(@Param("id") Long id);
+    
+    /**
+     * Compare-and-set status transition: applies only while the vehicle is still in {@code expected}, and bumps
+     * the optimistic-lock version so stale entity writes fail. Returns the number of rows changed (0 or 1).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Vehicle v SET v.status = :next, v.available = :available, v.version = v.version + 1, " +
+           "v.updatedAt = :now WHERE v.id = :id AND v.status = :expected")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expected") VehicleStatus expected,
+                            @Param("next") VehicleStatus next,
+                            @Param("available") boolean available,
+                            @Param("now") LocalDateTime now);
+    
+    /** Case-insensitive substring match over the text-searchable fields; fallback for the text index. */
+    @Query("SELECT v FROM Vehicle v WHERE (:availableOnly = false OR (v.status = 'AVAILABLE' AND v.available = true)) AND (" +
+           "LOWER(v.brand) LIKE :pattern OR LOWER(v.model) LIKE :pattern OR LOWER(v.vehicleNumber) LIKE :pattern " +
+           "OR LOWER(v.licensePlate) LIKE :pattern OR LOWER(v.currentCity) LIKE :pattern " +
+           "OR LOWER(v.currentAddress) LIKE :pattern OR LOWER(v.description) LIKE :pattern)")
+    Page<Vehicle> searchByText(@Param("pattern") String pattern, @Param("availableOnly") boolean availableOnly,
+                               Pageable pageable);
+    
+    /** Available vehicles tagged with every one of the given (normalised) feature tags. */
+    @Query("SELECT v FROM Vehicle v WHERE v.status = 'AVAILABLE' AND v.available = true AND v.id IN (" +
+           "SELECT t.id FROM Vehicle t JOIN t.featureTags tag WHERE tag IN :tags " +
+           "GROUP BY t.id HAVING COUNT(DISTINCT tag) = :tagCount)")
+    List<Vehicle> findAvailableWithAllFeatures(@Param("tags") Collection<String> tags, @Param("tagCount") long tagCount);
+    
     @Query("SELECT v FROM Vehicle v WHERE v.vehicleType = :vehicleType AND v.status = 'AVAILABLE' AND v.available = true")
     List<Vehicle> findAvailableVehiclesByType(@Param("vehicleType") String vehicleType);
     
-    // PostGIS spatial queries
+    // PostGIS spatial queries. Expressions and the status/available predicate match the partial
+    // geography GiST index created by VehicleSchemaInitializer.
     @Query(value = "SELECT * FROM vehicles v " +
             "WHERE v.status = 'AVAILABLE' " +
             "AND v.available = true " +
@@ -56,14 +92,39 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
             @Param("location") Point location, 
             @Param("radiusMeters") double radiusMeters);
     
+    /** KNN ordering with {@code <->}; walks idx_vehicles_available_location_geog instead of sorting the table. */
     @Query(value = "SELECT * FROM vehicles v " +
-            "ORDER BY ST_Distance(CAST(v.current_location AS geography), CAST(:location AS geography)) " +
+            "WHERE v.status = 'AVAILABLE' AND v.available = true AND v.current_location IS NOT NULL " +
+            "ORDER BY CAST(v.current_location AS geography) <-> CAST(:location AS geography) " +
             "LIMIT :limit", 
             nativeQuery = true)
     List<Vehicle> findNearestVehicles(
             @Param("location") Point location, 
             @Param("limit") int limit);
     
+    /**
+     * One keyset page of available vehicles within the radius, ordered by (distance, id) after the given
+     * position. Pass afterMeters = -1 for the first page.
+     */
+    @Query(value = "SELECT d.id AS \"id\", d.distance_m AS \"distanceMeters\" FROM (" +
+            "SELECT v.id, ST_Distance(CAST(v.current_location AS geography), CAST(:location AS geography)) AS distance_m " +
+            "FROM vehicles v " +
+            "WHERE v.status = 'AVAILABLE' " +
+            "AND v.available = true " +
+            "AND (CAST(:vehicleType AS varchar) IS NULL OR v.vehicle_type = CAST(:vehicleType AS varchar)) " +
+            "AND ST_DWithin(CAST(v.current_location AS geography), CAST(:location AS geography), :radiusMeters)) d " +
+            "WHERE d.distance_m > :afterMeters OR (d.distance_m = :afterMeters AND d.id > :afterId) " +
+            "ORDER BY d.distance_m, d.id " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<VehicleDistance> findNearbyPage(
+            @Param("location") Point location,
+            @Param("radiusMeters") double radiusMeters,
+            @Param("vehicleType") String vehicleType,
+            @Param("afterMeters") double afterMeters,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
+    
     @Query("SELECT v FROM Vehicle v WHERE v.requiresDriver = :requiresDriver AND v.status = 'AVAILABLE'")
     List<Vehicle> findVehiclesByDriverRequirement(@Param("requiresDriver") Boolean requiresDriver);
     
@@ -0,0 +1,74 @@
+package com.mobility.platform.vehicle.search;
+
+import com.mobility.platform.common.event.EventPublisher;
+import com.mobility.platform.common.geo.GeoCell;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts location searches per vehicle type and {@link GeoCell} and publishes the counts as one
+ * {@code vehicle.search.demand} event every {@code vehicle.search-demand.flush-interval-ms}, so pricing-service
+ * sees search volume without one message per search. Searches without a vehicle type are not counted.
+ */
+@Slf4j
+@Component
+public class SearchDemandRecorder {
+
+    private final EventPublisher eventPublisher;
+    private final boolean enabled;
+    private final ConcurrentHashMap<DemandKey, LongAdder> counts = new ConcurrentHashMap<>();
+
+    public SearchDemandRecorder(EventPublisher eventPublisher,
+                                @Value("${vehicle.search-demand.enabled:true}") boolean enabled) {
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+    }
+
+    public void record(String vehicleType, Double latitude, Double longitude) {
+        if (!enabled || vehicleType == null || vehicleType.isBlank() || latitude == null || longitude == null) {
+            return;
+        }
+        counts.computeIfAbsent(new DemandKey(vehicleType, GeoCell.of(latitude, longitude)), key -> new LongAdder())
+                .increment();
+    }
+
+    @Scheduled(fixedDelayString = "${vehicle.search-demand.flush-interval-ms:5000}")
+    public void flush() {
+        if (counts.isEmpty()) {
+            return;
+        }
+        ArrayList<Map<String, Object>> cells = new ArrayList<>(counts.size());
+        for (DemandKey key : counts.keySet()) {
+            LongAdder adder = counts.remove(key);
+            long searches = adder != null ? adder.sumThenReset() : 0;
+            if (searches > 0) {
+                Map<String, Object> cell = new HashMap<>();
+                cell.put("vehicleType", key.vehicleType());
+                cell.put("cell", key.cell());
+                cell.put("searches", searches);
+                cells.add(cell);
+            }
+        }
+        if (cells.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, Object> eventData = new HashMap<>();
+            eventData.put("cells", cells);
+            eventPublisher.publishVehicleEvent("search.demand", eventData);
+        } catch (Exception e) {
+            log.warn("Failed to publish search demand for {} cells. Error: {}", cells.size(), e.getMessage());
+        }
+    }
+
+    private record DemandKey(String vehicleType, long cell) {
+    }
+}
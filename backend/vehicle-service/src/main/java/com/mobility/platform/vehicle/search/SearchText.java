@@ -0,0 +1,66 @@
+package com.mobility.platform.vehicle.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Text normalisation and tokenisation for vehicle text search, applied identically to indexed fields and
+ * queries. Persian-aware: Arabic yeh/kaf and alef/heh variants fold to their Persian forms, diacritics and
+ * tatweel are dropped, the zero-width non-joiner separates tokens, and Persian/Arabic-Indic digits become ASCII.
+ */
+public final class SearchText {
+
+    private SearchText() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case 'ي', 'ى' -> normalized.append('ی'); // Arabic yeh / alef maksura -> Persian yeh
+                case 'ك' -> normalized.append('ک'); // Arabic kaf -> Persian kaf
+                case 'أ', 'إ', 'آ', 'ٱ' -> normalized.append('ا'); // alef variants -> alef
+                case 'ۀ', 'ة' -> normalized.append('ه'); // heh with yeh / teh marbuta -> heh
+                case 'ؤ' -> normalized.append('و'); // waw with hamza -> waw
+                case '\u200C', '\u200D' -> normalized.append(' '); // ZWNJ / ZWJ split tokens
+                case '\u0640' -> { // tatweel
+                }
+                default -> {
+                    if ((c >= '\u064B' && c <= '\u065F') || c == '\u0670') {
+                        continue; // harakat and other diacritics
+                    }
+                    if (c >= '\u06F0' && c <= '\u06F9') {
+                        normalized.append((char) ('0' + (c - '\u06F0'))); // Persian digits
+                    } else if (c >= '\u0660' && c <= '\u0669') {
+                        normalized.append((char) ('0' + (c - '\u0660'))); // Arabic-Indic digits
+                    } else {
+                        normalized.append(c);
+                    }
+                }
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /** Normalised tokens: maximal runs of letters and digits. */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
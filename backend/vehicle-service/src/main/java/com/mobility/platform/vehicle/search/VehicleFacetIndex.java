@@ -0,0 +1,294 @@
+package com.mobility.platform.vehicle.search;
+
+import com.mobility.platform.common.enums.VehicleStatus;
+import com.mobility.platform.vehicle.dto.VehicleFacetSearchRequest;
+import com.mobility.platform.vehicle.dto.VehicleResponse;
+import com.mobility.platform.vehicle.geo.VehicleChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory inverted index of AVAILABLE vehicles for faceted search.
+ * <p>
+ * Every facet value (feature tag, fuel type, transmission, vehicle type, seating capacity) maps to the set of
+ * vehicle IDs that have it. A query intersects the posting sets of its criteria starting from the smallest,
+ * applies the range filters (seats, price, distance) to the survivors, and counts facet values over all
+ * matches in the same pass. Like {@link com.mobility.platform.vehicle.geo.AvailableVehicleIndex} it is fed by
+ * {@link VehicleChangedEvent}s, rebuilt periodically, and returns empty until the first load completes.
+ */
+@Slf4j
+@Component
+public class VehicleFacetIndex {
+
+    public static final String FEATURES = "features";
+    public static final String FUEL_TYPE = "fuelType";
+    public static final String TRANSMISSION = "transmission";
+    public static final String VEHICLE_TYPE = "vehicleType";
+    public static final String SEATING_CAPACITY = "seatingCapacity";
+
+    private final boolean enabled;
+
+    private volatile Postings postings;
+
+    /** Changes applied while a rebuild is loading; replayed onto the fresh postings before they are swapped in. */
+    private List<VehicleChangedEvent> journal;
+
+    public VehicleFacetIndex(@Value("${vehicle.facet-index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * One page of matches with facet counts over all of them. {@code distances} (vehicle ID to km), when
+     * given, restricts the search to those vehicles and orders results by distance; otherwise by ID.
+     */
+    public Optional<FacetPage> search(VehicleFacetSearchRequest request, Map<Long, Double> distances,
+                                      int page, int size) {
+        Postings current = postings;
+        if (!enabled || current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.search(request, distances, page, size));
+    }
+
+    /** Same search over an ad-hoc set of vehicles, for when the index has not loaded yet. */
+    public static FacetPage searchIn(Collection<VehicleResponse> vehicles, VehicleFacetSearchRequest request,
+                                     Map<Long, Double> distances, int page, int size) {
+        Postings adHoc = new Postings();
+        vehicles.forEach(adHoc::upsert);
+        return adHoc.search(request, distances, page, size);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        synchronized (this) {
+            if (postings != null) {
+                postings.apply(event);
+            }
+            if (journal != null) {
+                journal.add(event);
+            }
+        }
+    }
+
+    /** Replaces the index with the given AVAILABLE vehicles, keeping changes that arrive meanwhile. */
+    public void rebuild(Supplier<Collection<VehicleResponse>> loader) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        try {
+            Postings fresh = new Postings();
+            loader.get().forEach(fresh::upsert);
+            synchronized (this) {
+                journal.forEach(fresh::apply);
+                postings = fresh;
+            }
+            log.info("Vehicle facet index loaded with {} vehicles", fresh.docs.size());
+        } finally {
+            synchronized (this) {
+                journal = null;
+            }
+        }
+    }
+
+    /** A page of matches, the total number of matches and facet name -> value -> count (most frequent first). */
+    public record FacetPage(List<VehicleResponse> content, long totalElements, Map<String, Map<String, Long>> facets) {
+    }
+
+    private record Doc(VehicleResponse snapshot, Map<String, Set<String>> values) {
+    }
+
+    private static final class Postings {
+
+        private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, Set<Long>>> fields = new ConcurrentHashMap<>();
+
+        private void apply(VehicleChangedEvent event) {
+            if (event.getSnapshot() == null) {
+                remove(event.getVehicleId());
+            } else {
+                upsert(event.getSnapshot());
+            }
+        }
+
+        private void upsert(VehicleResponse vehicle) {
+            remove(vehicle.getId());
+            if (vehicle.getStatus() != VehicleStatus.AVAILABLE || !Boolean.TRUE.equals(vehicle.getAvailable())) {
+                return;
+            }
+            VehicleResponse snapshot = new VehicleResponse();
+            BeanUtils.copyProperties(vehicle, snapshot);
+            snapshot.setDistanceKm(null);
+            Doc doc = new Doc(snapshot, valuesOf(snapshot));
+            doc.values().forEach((field, values) -> values.forEach(value -> fields
+                    .computeIfAbsent(field, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(value, k -> ConcurrentHashMap.newKeySet())
+                    .add(snapshot.getId())));
+            docs.put(snapshot.getId(), doc);
+        }
+
+        private void remove(Long vehicleId) {
+            Doc doc = docs.remove(vehicleId);
+            if (doc == null) {
+                return;
+            }
+            doc.values().forEach((field, values) -> {
+                Map<String, Set<Long>> byValue = fields.get(field);
+                for (String value : values) {
+                    Set<Long> ids = byValue.get(value);
+                    if (ids != null) {
+                        ids.remove(vehicleId);
+                        if (ids.isEmpty()) {
+                            byValue.remove(value);
+                        }
+                    }
+                }
+            });
+        }
+
+        private FacetPage search(VehicleFacetSearchRequest request, Map<Long, Double> distances, int page, int size) {
+            List<Set<Long>> constraints = new ArrayList<>();
+            if (distances != null) {
+                constraints.add(distances.keySet());
+            }
+            if (request.getFeatures() != null) {
+                for (String feature : request.getFeatures()) {
+                    String tag = VehicleFeatures.normalize(feature);
+                    if (tag != null) {
+                        constraints.add(posting(FEATURES, tag));
+                    }
+                }
+            }
+            addAnyOf(constraints, FUEL_TYPE, request.getFuelTypes());
+            addAnyOf(constraints, TRANSMISSION, request.getTransmissions());
+            String vehicleType = upper(request.getVehicleType());
+            if (vehicleType != null) {
+                constraints.add(posting(VEHICLE_TYPE, vehicleType));
+            }
+
+            Collection<Long> candidates = constraints.isEmpty()
+                    ? docs.keySet()
+                    : constraints.stream().min(Comparator.comparingInt(Set::size)).orElseThrow();
+            List<Doc> matches = new ArrayList<>();
+            Map<String, Map<String, Long>> counts = new HashMap<>();
+            for (Long id : candidates) {
+                Doc doc = docs.get(id);
+                if (doc == null || !matchesAll(id, constraints) || !inRange(doc.snapshot(), request)) {
+                    continue;
+                }
+                matches.add(doc);
+                doc.values().forEach((field, values) -> values.forEach(value ->
+                        counts.computeIfAbsent(field, k -> new HashMap<>()).merge(value, 1L, Long::sum)));
+            }
+
+            Comparator<Doc> byId = Comparator.comparingLong(doc -> doc.snapshot().getId());
+            matches.sort(distances != null
+                    ? Comparator.<Doc>comparingDouble(doc -> distances.get(doc.snapshot().getId())).thenComparing(byId)
+                    : byId);
+            // Offsets in long: page * size can overflow int, since the page number is only bounded below
+            long from = (long) page * size;
+            long to = Math.min(matches.size(), from + size);
+            List<VehicleResponse> content = new ArrayList<>();
+            for (long i = from; i < to; i++) {
+                VehicleResponse response = new VehicleResponse();
+                BeanUtils.copyProperties(matches.get((int) i).snapshot(), response);
+                response.setDistanceKm(distances != null ? distances.get(response.getId()) : null);
+                content.add(response);
+            }
+            return new FacetPage(content, matches.size(), sortedFacets(counts));
+        }
+
+        /** Multi-valued criterion: vehicles having any of the values. */
+        private void addAnyOf(List<Set<Long>> constraints, String field, List<String> values) {
+            List<String> wanted = values == null ? List.of()
+                    : values.stream().map(Postings::upper).filter(value -> value != null).toList();
+            if (wanted.isEmpty()) {
+                return;
+            }
+            Set<Long> union = new HashSet<>();
+            wanted.forEach(value -> union.addAll(posting(field, value)));
+            constraints.add(union);
+        }
+
+        private Set<Long> posting(String field, String value) {
+            Set<Long> ids = fields.getOrDefault(field, Map.of()).get(value);
+            return ids != null ? ids : Set.of();
+        }
+
+        private static boolean matchesAll(Long id, List<Set<Long>> constraints) {
+            for (Set<Long> constraint : constraints) {
+                if (!constraint.contains(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean inRange(VehicleResponse vehicle, VehicleFacetSearchRequest request) {
+            if (request.getMinSeats() != null
+                    && (vehicle.getSeatingCapacity() == null || vehicle.getSeatingCapacity() < request.getMinSeats())) {
+                return false;
+            }
+            if (request.getMinPricePerDay() != null
+                    && (vehicle.getPricePerDay() == null || vehicle.getPricePerDay().compareTo(request.getMinPricePerDay()) < 0)) {
+                return false;
+            }
+            return request.getMaxPricePerDay() == null
+                    || (vehicle.getPricePerDay() != null && vehicle.getPricePerDay().compareTo(request.getMaxPricePerDay()) <= 0);
+        }
+
+        private static Map<String, Set<String>> valuesOf(VehicleResponse vehicle) {
+            Map<String, Set<String>> values = new HashMap<>();
+            values.put(FEATURES, vehicle.getFeatureTags() != null
+                    ? new HashSet<>(vehicle.getFeatureTags())
+                    : VehicleFeatures.parse(vehicle.getFeatures()));
+            putSingle(values, FUEL_TYPE, upper(vehicle.getFuelType()));
+            putSingle(values, TRANSMISSION, upper(vehicle.getTransmission()));
+            putSingle(values, VEHICLE_TYPE, upper(vehicle.getVehicleType()));
+            putSingle(values, SEATING_CAPACITY,
+                    vehicle.getSeatingCapacity() != null ? vehicle.getSeatingCapacity().toString() : null);
+            return values;
+        }
+
+        private static void putSingle(Map<String, Set<String>> values, String field, String value) {
+            if (value != null) {
+                values.put(field, Set.of(value));
+            }
+        }
+
+        private static String upper(String value) {
+            return value != null && !value.isBlank() ? value.trim().toUpperCase(Locale.ROOT) : null;
+        }
+
+        private static Map<String, Map<String, Long>> sortedFacets(Map<String, Map<String, Long>> counts) {
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            for (String field : List.of(FEATURES, FUEL_TYPE, TRANSMISSION, VEHICLE_TYPE, SEATING_CAPACITY)) {
+                Map<String, Long> sorted = new LinkedHashMap<>();
+                counts.getOrDefault(field, Map.of()).entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                        .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+                facets.put(field, sorted);
+            }
+            return facets;
+        }
+    }
+}
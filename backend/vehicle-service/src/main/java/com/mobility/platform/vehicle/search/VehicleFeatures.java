@@ -0,0 +1,44 @@
+package com.mobility.platform.vehicle.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalises the free-form {@code features} text (a JSON array or a comma-separated list) into feature tags:
+ * trimmed, lower-cased and de-duplicated. Used both for the {@code vehicle_features} table and the in-memory
+ * facet index, so filters match the same way in both.
+ */
+public final class VehicleFeatures {
+
+    private static final int MAX_TAG_LENGTH = 100;
+
+    private VehicleFeatures() {
+    }
+
+    public static Set<String> parse(String features) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (features == null || features.isBlank()) {
+            return tags;
+        }
+        for (String part : features.replaceAll("[\\[\\]\"]", "").split(",")) {
+            String tag = normalize(part);
+            if (tag != null) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    /** Normalised tag, or null when nothing is left. */
+    public static String normalize(String feature) {
+        if (feature == null) {
+            return null;
+        }
+        String tag = feature.trim().toLowerCase(Locale.ROOT);
+        if (tag.isEmpty()) {
+            return null;
+        }
+        return tag.length() > MAX_TAG_LENGTH ? tag.substring(0, MAX_TAG_LENGTH) : tag;
+    }
+}
@@ -0,0 +1,261 @@
+package com.mobility.platform.vehicle.search;
+
+import com.mobility.platform.common.enums.VehicleStatus;
+import com.mobility.platform.vehicle.dto.VehicleResponse;
+import com.mobility.platform.vehicle.geo.VehicleChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * In-process inverted index for ranked, prefix-matching text search over every vehicle.
+ * <p>
+ * Brand, model, vehicle number, licence plate, type, city, address, description and features are tokenised
+ * with {@link SearchText} (so Persian spelling variants match) into a sorted term dictionary; each term maps to
+ * the vehicles containing it with a field-weighted score. Every query token must match some term it is a prefix
+ * of; a vehicle's score sums, per query token, the best matching term's weight times its IDF, with exact
+ * matches ranked above prefix matches. Kept current from {@link VehicleChangedEvent}s and rebuilt periodically;
+ * returns empty until the first load completes so callers can fall back to the database.
+ */
+@Slf4j
+@Component
+public class VehicleTextIndex {
+
+    /**
+     * A one- or two-letter prefix can match much of the dictionary; only this many terms are expanded per query
+     * token: the exact term, if any, and the matching terms found in the most vehicles.
+     */
+    static final int MAX_PREFIX_TERMS = 64;
+    private static final float PREFIX_MATCH_FACTOR = 0.6f;
+
+    private final boolean enabled;
+
+    private volatile Dictionary dictionary;
+
+    /** Changes applied while a rebuild is loading; replayed onto the fresh dictionary before it is swapped in. */
+    private List<VehicleChangedEvent> journal;
+
+    public VehicleTextIndex(@Value("${vehicle.text-index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * One page of vehicles matching every token of the query, best first (ties by ID). A token that is a prefix
+     * of more than {@link #MAX_PREFIX_TERMS} terms matches through the exact term and the most frequent
+     * completions only; vehicles reachable only through rarer completions are neither returned nor counted in
+     * {@code totalElements}. Longer tokens narrow the expansion.
+     */
+    public Optional<TextPage> search(String query, boolean availableOnly, int page, int size) {
+        Dictionary current = dictionary;
+        if (!enabled || current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.search(SearchText.tokenize(query), availableOnly, page, size));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        synchronized (this) {
+            if (dictionary != null) {
+                dictionary.apply(event);
+            }
+            if (journal != null) {
+                journal.add(event);
+            }
+        }
+    }
+
+    /** Replaces the index with the given vehicles, keeping changes that arrive meanwhile. */
+    public void rebuild(Supplier<Collection<VehicleResponse>> loader) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        try {
+            Dictionary fresh = new Dictionary();
+            loader.get().forEach(fresh::upsert);
+            synchronized (this) {
+                journal.forEach(fresh::apply);
+                dictionary = fresh;
+            }
+            log.info("Vehicle text index loaded with {} vehicles and {} terms", fresh.docs.size(), fresh.terms.size());
+        } finally {
+            synchronized (this) {
+                journal = null;
+            }
+        }
+    }
+
+    public record TextPage(List<VehicleResponse> content, long totalElements) {
+    }
+
+    private record Doc(VehicleResponse snapshot, Set<String> terms) {
+    }
+
+    private record Scored(Doc doc, float score) {
+    }
+
+    private static final class Dictionary {
+
+        private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, Map<Long, Float>> terms = new ConcurrentSkipListMap<>();
+
+        private void apply(VehicleChangedEvent event) {
+            if (event.getSnapshot() == null) {
+                remove(event.getVehicleId());
+            } else {
+                upsert(event.getSnapshot());
+            }
+        }
+
+        private void upsert(VehicleResponse vehicle) {
+            remove(vehicle.getId());
+            VehicleResponse snapshot = new VehicleResponse();
+            BeanUtils.copyProperties(vehicle, snapshot);
+            snapshot.setDistanceKm(null);
+
+            Map<String, Float> weights = new HashMap<>();
+            addField(weights, snapshot.getBrand(), 3f);
+            addField(weights, snapshot.getModel(), 3f);
+            addField(weights, snapshot.getVehicleNumber(), 2f);
+            addField(weights, snapshot.getLicensePlate(), 2f);
+            addField(weights, snapshot.getVehicleType(), 1.5f);
+            addField(weights, snapshot.getCurrentCity(), 1.5f);
+            addField(weights, snapshot.getCurrentAddress(), 1f);
+            addField(weights, snapshot.getDescription(), 1f);
+            addField(weights, snapshot.getFeatures(), 1f);
+
+            weights.forEach((term, weight) ->
+                    terms.computeIfAbsent(term, k -> new ConcurrentHashMap<>()).put(snapshot.getId(), weight));
+            docs.put(snapshot.getId(), new Doc(snapshot, weights.keySet()));
+        }
+
+        /** Each distinct term counts once per field, so long descriptions do not drown out the brand. */
+        private static void addField(Map<String, Float> weights, String text, float fieldWeight) {
+            for (String token : new LinkedHashSet<>(SearchText.tokenize(text))) {
+                weights.merge(token, fieldWeight, Float::sum);
+            }
+        }
+
+        private void remove(Long vehicleId) {
+            Doc doc = docs.remove(vehicleId);
+            if (doc == null) {
+                return;
+            }
+            for (String term : doc.terms()) {
+                Map<Long, Float> postings = terms.get(term);
+                if (postings != null) {
+                    postings.remove(vehicleId);
+                    if (postings.isEmpty()) {
+                        terms.remove(term);
+                    }
+                }
+            }
+        }
+
+        private TextPage search(List<String> tokens, boolean availableOnly, int page, int size) {
+            if (tokens.isEmpty()) {
+                return new TextPage(List.of(), 0);
+            }
+            double docCount = Math.max(1, docs.size());
+            Map<Long, Float> scores = null;
+            for (String token : new LinkedHashSet<>(tokens)) {
+                Map<Long, Float> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Map<Long, Float>> match : expand(token)) {
+                    Map<Long, Float> postings = match.getValue();
+                    float idf = (float) Math.log(1 + docCount / Math.max(1, postings.size()));
+                    float factor = match.getKey().length() == token.length() ? 1f : PREFIX_MATCH_FACTOR;
+                    for (Map.Entry<Long, Float> posting : postings.entrySet()) {
+                        if (scores == null || scores.containsKey(posting.getKey())) {
+                            tokenScores.merge(posting.getKey(), posting.getValue() * idf * factor, Math::max);
+                        }
+                    }
+                }
+                if (scores != null) {
+                    // AND semantics: keep only vehicles that also matched this token
+                    Map<Long, Float> previous = scores;
+                    tokenScores.replaceAll((id, score) -> score + previous.get(id));
+                }
+                scores = tokenScores;
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            List<Scored> ranked = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> {
+                Doc doc = docs.get(id);
+                if (doc != null && (!availableOnly || isAvailable(doc.snapshot()))) {
+                    ranked.add(new Scored(doc, score));
+                }
+            });
+            ranked.sort(Comparator.comparingDouble((Scored scored) -> -scored.score())
+                    .thenComparingLong(scored -> scored.doc().snapshot().getId()));
+
+            // Offsets in long: page * size can overflow int for a large page number, which is not bounded
+            long from = (long) page * size;
+            if (from >= ranked.size()) {
+                return new TextPage(List.of(), ranked.size());
+            }
+            int to = (int) Math.min(ranked.size(), from + size);
+            List<VehicleResponse> content = new ArrayList<>(to - (int) from);
+            for (int i = (int) from; i < to; i++) {
+                VehicleResponse response = new VehicleResponse();
+                BeanUtils.copyProperties(ranked.get(i).doc().snapshot(), response);
+                content.add(response);
+            }
+            return new TextPage(content, ranked.size());
+        }
+
+        /**
+         * Terms the token is a prefix of, capped at {@link #MAX_PREFIX_TERMS}: the exact term always, then the
+         * terms with the most postings, so a short prefix keeps its most common completions rather than the
+         * alphabetically first ones.
+         */
+        private Collection<Map.Entry<String, Map<Long, Float>>> expand(String token) {
+            NavigableMap<String, Map<Long, Float>> matches = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+            Map<Long, Float> exact = matches.get(token);
+            int budget = MAX_PREFIX_TERMS - (exact != null ? 1 : 0);
+            PriorityQueue<Map.Entry<String, Map<Long, Float>>> frequent =
+                    new PriorityQueue<>(Comparator.comparingInt(match -> match.getValue().size()));
+            for (Map.Entry<String, Map<Long, Float>> match : matches.entrySet()) {
+                if (match.getKey().length() == token.length()) {
+                    continue;
+                }
+                frequent.add(match);
+                if (frequent.size() > budget) {
+                    frequent.poll();
+                }
+            }
+            List<Map.Entry<String, Map<Long, Float>>> expanded = new ArrayList<>(frequent.size() + 1);
+            if (exact != null) {
+                expanded.add(Map.entry(token, exact));
+            }
+            expanded.addAll(frequent);
+            return expanded;
+        }
+
+        private static boolean isAvailable(VehicleResponse vehicle) {
+            return vehicle.getStatus() == VehicleStatus.AVAILABLE && Boolean.TRUE.equals(vehicle.getAvailable());
+        }
+    }
+}
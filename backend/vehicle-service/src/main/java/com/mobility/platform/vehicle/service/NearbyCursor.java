@@ -0,0 +1,32 @@
+package com.mobility.platform.vehicle.service;
+
+import com.mobility.platform.common.exception.BusinessException;
+import com.mobility.platform.vehicle.geo.AvailableVehicleIndex.NearestPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque, URL-safe encoding of the (distance, vehicle id) keyset position used by the nearby search.
+ */
+final class NearbyCursor {
+
+    private NearbyCursor() {
+    }
+
+    static String encode(double distanceKm, long vehicleId) {
+        String raw = distanceKm + "|" + vehicleId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static NearestPosition decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new NearestPosition(Double.parseDouble(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Invalid pagination cursor", "INVALID_CURSOR");
+        }
+    }
+}
@@ -6,25 +6,51 @@ import com.mobility.platform.common.event.EventPublisher;
 import com.mobility.platform.common.exception.BusinessException;
 import com.mobility.platform.common.exception.ResourceNotFoundException;
 import com.mobility.platform.vehicle.dto.LocationSearchRequest;
+import com.mobility.platform.vehicle.dto.VehicleFacetSearchRequest;
+import com.mobility.platform.vehicle.dto.VehicleFacetSearchResponse;
 import com.mobility.platform.vehicle.dto.VehicleRequest;
 import com.mobility.platform.vehicle.client.BookingClient;
 import com.mobility.platform.vehicle.dto.VehicleResponse;
+import com.mobility.platform.vehicle.dto.VehicleStatusBatchRequest;
 import com.mobility.platform.vehicle.entity.Vehicle;
+import com.mobility.platform.vehicle.geo.AvailableVehicleIndex;
+import com.mobility.platform.vehicle.geo.AvailableVehicleIndex.NearestPosition;
+import com.mobility.platform.vehicle.geo.VehicleChangedEvent;
+import com.mobility.platform.vehicle.repository.VehicleDistance;
 import com.mobility.platform.vehicle.repository.VehicleRepository;
+import com.mobility.platform.vehicle.search.SearchDemandRecorder;
+import com.mobility.platform.vehicle.search.VehicleFacetIndex;
+import com.mobility.platform.vehicle.search.VehicleFacetIndex.FacetPage;
+import com.mobility.platform.vehicle.search.VehicleFeatures;
+import com.mobility.platform.vehicle.search.VehicleTextIndex;
+import com.mobility.platform.vehicle.search.VehicleTextIndex.TextPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -38,8 +64,23 @@ public class VehicleService {
     private final VehicleRepository vehicleRepository;
     private final EventPublisher eventPublisher;
     private final BookingClient bookingClient;
+    private final AvailableVehicleIndex availableVehicleIndex;
+    private final VehicleFacetIndex vehicleFacetIndex;
+    private final VehicleTextIndex vehicleTextIndex;
+    private final SearchDemandRecorder searchDemandRecorder;
+    private final ApplicationEventPublisher applicationEventPublisher;
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
     
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_SEARCH_CANDIDATES = 1000;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_PAGE_SIZE = 200;
+    private static final int MAX_STATUS_UPDATE_ATTEMPTS = 5;
+    private static final int DEFAULT_NEARBY_PAGE_SIZE = 20;
+    private static final int DEFAULT_TEXT_SEARCH_PAGE_SIZE = 20;
+    private static final double DEFAULT_NEARBY_RADIUS_KM = 5.0;
+    private static final double MAX_NEARBY_RADIUS_KM = 50.0;
+    
     @Transactional
     public VehicleResponse createVehicle(VehicleRequest request) {
         log.info("Creating new vehicle: {}", request.getVehicleNumber());
@@ -53,19 +94,14 @@ public class VehicleService {
         mapRequestToEntity(request, vehicle);
         
         vehicle = vehicleRepository.save(vehicle);
+        publishVehicleChanged(vehicle);
         
         // Publish vehicle created event
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("vehicleId", vehicle.getId());
-            eventData.put("vehicleNumber", vehicle.getVehicleNumber());
-            eventData.put("vehicleType", vehicle.getVehicleType());
-            eventPublisher.publishVehicleEvent("vehicle.created", eventData);
-        } catch (Exception e) {
-            log.warn("Failed to publish vehicle created event for vehicle ID: {}. Error: {}", 
-                    vehicle.getId(), e.getMessage());
-            // Don't fail the transaction if event publishing fails
-        }
+        Map<String, Object> eventData = new HashMap<>();
+        eventData.put("vehicleId", vehicle.getId());
+        eventData.put("vehicleNumber", vehicle.getVehicleNumber());
+        eventData.put("vehicleType", vehicle.getVehicleType());
+        publishVehicleEventAfterCommit("vehicle.created", eventData);
         
         log.info("Vehicle created successfully with ID: {}", vehicle.getId());
         
@@ -79,6 +115,16 @@ public class VehicleService {
         return mapToResponse(vehicle, null);
     }
     
+    public List<VehicleResponse> getVehiclesByIds(List<Long> ids) {
+        log.info("Fetching {} vehicles by ID", ids.size());
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException("At most " + MAX_BATCH_SIZE + " vehicles can be fetched per batch", "BATCH_TOO_LARGE");
+        }
+        return vehicleRepository.findAllById(new LinkedHashSet<>(ids)).stream()
+                .map(v -> mapToResponse(v, null))
+                .collect(Collectors.toList());
+    }
+    
     public VehicleResponse getVehicleByNumber(String vehicleNumber) {
         log.info("Fetching vehicle by number: {}", vehicleNumber);
         Vehicle vehicle = vehicleRepository.findByVehicleNumber(vehicleNumber)
@@ -97,6 +143,50 @@ public class VehicleService {
         return buildPageResponse(vehiclePage, vehicles);
     }
     
+    /** Every vehicle, unpaged; used to load the in-process text index. */
+    public List<VehicleResponse> getAllVehiclesForIndexing() {
+        return vehicleRepository.findAll().stream()
+                .map(v -> mapToResponse(v, null))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Ranked, prefix-matching text search over brand, model, plate, address, description and features,
+     * served from the in-process text index, or by substring match in the database until it has loaded.
+     */
+    public PageResponse<VehicleResponse> searchByText(String query, boolean availableOnly, Integer page, Integer size) {
+        int pageNumber = page != null && page > 0 ? page : 0;
+        int pageSize = size != null && size > 0 ? Math.min(size, MAX_SEARCH_PAGE_SIZE) : DEFAULT_TEXT_SEARCH_PAGE_SIZE;
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("Search query must not be empty", "INVALID_QUERY");
+        }
+        
+        Optional<TextPage> indexed = vehicleTextIndex.search(query, availableOnly, pageNumber, pageSize);
+        if (indexed.isEmpty()) {
+            String pattern = "%" + query.trim().toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            Page<Vehicle> vehiclePage = vehicleRepository.searchByText(pattern, availableOnly,
+                    PageRequest.of(pageNumber, pageSize, Sort.by("id")));
+            List<VehicleResponse> vehicles = vehiclePage.getContent().stream()
+                    .map(v -> mapToResponse(v, null))
+                    .collect(Collectors.toList());
+            return buildPageResponse(vehiclePage, vehicles);
+        }
+        
+        TextPage result = indexed.get();
+        int totalPages = (int) ((result.totalElements() + pageSize - 1) / pageSize);
+        return PageResponse.<VehicleResponse>builder()
+                .content(result.content())
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .totalElements(result.totalElements())
+                .totalPages(totalPages)
+                .first(pageNumber == 0)
+                .last(pageNumber >= totalPages - 1)
+                .empty(result.content().isEmpty())
+                .build();
+    }
+    
     public List<VehicleResponse> getAvailableVehicles() {
         log.info("Fetching all available vehicles");
         List<Vehicle> vehicles = vehicleRepository.findAvailableVehicles();
@@ -113,10 +203,75 @@ public class VehicleService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Available vehicles within the radius, nearest first, one page at a time. At most
+     * {@value #MAX_SEARCH_CANDIDATES} nearest candidates are considered; when a time window is given they are
+     * checked against booking-service in a single call and the search fails rather than return vehicles whose
+     * availability could not be verified.
+     */
     public List<VehicleResponse> searchVehiclesByLocation(LocationSearchRequest request) {
         log.info("Searching vehicles near location: lat={}, lon={}, radius={}km", 
                 request.getLatitude(), request.getLongitude(), request.getRadiusKm());
+        if (request.getPage() == null || request.getPage() == 0) {
+            searchDemandRecorder.record(request.getVehicleType(), request.getLatitude(), request.getLongitude());
+        }
+        
+        // Served from the in-memory index; PostGIS only until the index has loaded
+        List<VehicleResponse> vehicles = availableVehicleIndex.findWithinRadius(
+                        request.getLatitude(), request.getLongitude(), request.getRadiusKm(), request.getVehicleType())
+                .orElseGet(() -> searchVehiclesByLocationInDatabase(request));
+        if (vehicles.size() > MAX_SEARCH_CANDIDATES) {
+            vehicles = vehicles.subList(0, MAX_SEARCH_CANDIDATES);
+        }
+        
+        // Filter by time-based availability if time range is provided
+        if (request.getStartDateTime() != null && request.getEndDateTime() != null) {
+            vehicles = excludeBookedVehicles(vehicles, request.getStartDateTime(), request.getEndDateTime());
+        }
         
+        int pageSize = request.getSize() != null ? Math.min(request.getSize(), MAX_SEARCH_PAGE_SIZE) : DEFAULT_SEARCH_PAGE_SIZE;
+        int from = (request.getPage() != null ? request.getPage() : 0) * pageSize;
+        if (from >= vehicles.size()) {
+            return List.of();
+        }
+        return new ArrayList<>(vehicles.subList(from, Math.min(from + pageSize, vehicles.size())));
+    }
+    
+    private List<VehicleResponse> excludeBookedVehicles(List<VehicleResponse> vehicles,
+                                                        LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (vehicles.isEmpty()) {
+            return vehicles;
+        }
+        log.info("Filtering {} vehicles by availability in time range: {} to {}", 
+                vehicles.size(), startDateTime, endDateTime);
+        
+        Map<String, Object> check = new HashMap<>();
+        check.put("vehicleIds", vehicles.stream().map(VehicleResponse::getId).collect(Collectors.toList()));
+        check.put("startDateTime", startDateTime.toString());
+        check.put("endDateTime", endDateTime.toString());
+        
+        List<Long> bookedVehicleIds;
+        try {
+            bookedVehicleIds = bookingClient.checkBookedVehicles(check).getData();
+        } catch (Exception e) {
+            log.error("Failed to check booking availability: {}", e.getMessage());
+            throw new BusinessException("Vehicle availability could not be verified, please try again",
+                    "AVAILABILITY_CHECK_FAILED");
+        }
+        if (bookedVehicleIds == null || bookedVehicleIds.isEmpty()) {
+            return vehicles;
+        }
+        
+        Set<Long> booked = new HashSet<>(bookedVehicleIds);
+        List<VehicleResponse> available = vehicles.stream()
+                .filter(v -> !booked.contains(v.getId()))
+                .collect(Collectors.toList());
+        log.info("Filtered out {} booked vehicles, {} vehicles remaining", 
+                vehicles.size() - available.size(), available.size());
+        return available;
+    }
+    
+    private List<VehicleResponse> searchVehiclesByLocationInDatabase(LocationSearchRequest request) {
         Point searchLocation = createPoint(request.getLatitude(), request.getLongitude());
         double radiusMeters = request.getRadiusKm() * 1000; // Convert km to meters
         
@@ -129,34 +284,6 @@ public class VehicleService {
                     searchLocation, radiusMeters);
         }
         
-        // Filter by time-based availability if time range is provided
-        if (request.getStartDateTime() != null && request.getEndDateTime() != null) {
-            log.info("Filtering vehicles by availability in time range: {} to {}", 
-                    request.getStartDateTime(), request.getEndDateTime());
-            
-            try {
-                // Get list of booked vehicle IDs in the time range
-                List<Long> bookedVehicleIds = bookingClient.getBookedVehicleIds(
-                        request.getStartDateTime().toString(),
-                        request.getEndDateTime().toString()
-                ).getData();
-                
-                if (bookedVehicleIds != null && !bookedVehicleIds.isEmpty()) {
-                    // Filter out vehicles that are booked
-                    vehicles = vehicles.stream()
-                            .filter(v -> !bookedVehicleIds.contains(v.getId()))
-                            .collect(Collectors.toList());
-                    
-                    log.info("Filtered out {} booked vehicles, {} vehicles remaining", 
-                            bookedVehicleIds.size(), vehicles.size());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to check booking availability, returning all vehicles. Error: {}", 
-                        e.getMessage());
-                // Continue with all vehicles if booking service is unavailable
-            }
-        }
-        
         return vehicles.stream()
                 .map(v -> {
                     Double distance = calculateDistance(searchLocation, v.getCurrentLocation());
@@ -165,18 +292,145 @@ public class VehicleService {
                 .collect(Collectors.toList());
     }
     
-    public List<VehicleResponse> getNearestVehicles(Double latitude, Double longitude, Integer limit) {
-        log.info("Fetching nearest {} vehicles to location: lat={}, lon={}", limit, latitude, longitude);
+    /**
+     * Distance-ordered, cursor-paginated search of available vehicles within a radius. Pages are keyed on
+     * (distance, id), so each page is a bounded top-K selection instead of a re-run of the whole radius query.
+     */
+    public PageResponse<VehicleResponse> searchNearby(Double latitude, Double longitude, Double radiusKm,
+                                                      String vehicleType, String cursor, Integer size) {
+        double radius = radiusKm != null ? Math.min(radiusKm, MAX_NEARBY_RADIUS_KM) : DEFAULT_NEARBY_RADIUS_KM;
+        int pageSize = size != null && size > 0 ? Math.min(size, MAX_SEARCH_PAGE_SIZE) : DEFAULT_NEARBY_PAGE_SIZE;
+        boolean first = cursor == null || cursor.isBlank();
+        NearestPosition after = first ? null : NearbyCursor.decode(cursor);
+        if (first) {
+            searchDemandRecorder.record(vehicleType, latitude, longitude);
+        }
         
-        Point searchLocation = createPoint(latitude, longitude);
-        List<Vehicle> vehicles = vehicleRepository.findNearestVehicles(searchLocation, limit);
+        // One extra row tells whether another page exists
+        List<VehicleResponse> vehicles = availableVehicleIndex
+                .findNearest(latitude, longitude, pageSize + 1, radius, vehicleType, after)
+                .orElseGet(() -> searchNearbyInDatabase(latitude, longitude, radius, vehicleType, after, pageSize + 1));
+        
+        boolean hasMore = vehicles.size() > pageSize;
+        List<VehicleResponse> page = hasMore ? vehicles.subList(0, pageSize) : vehicles;
+        String nextCursor = null;
+        if (hasMore) {
+            VehicleResponse last = page.get(page.size() - 1);
+            nextCursor = NearbyCursor.encode(last.getDistanceKm(), last.getId());
+        }
+        return PageResponse.<VehicleResponse>builder()
+                .content(new ArrayList<>(page))
+                .pageSize(pageSize)
+                .totalElements(-1)
+                .totalPages(-1)
+                .first(first)
+                .last(!hasMore)
+                .empty(page.isEmpty())
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    private List<VehicleResponse> searchNearbyInDatabase(double latitude, double longitude, double radiusKm,
+                                                         String vehicleType, NearestPosition after, int limit) {
+        List<VehicleDistance> distances = vehicleRepository.findNearbyPage(
+                createPoint(latitude, longitude), radiusKm * 1000, vehicleType,
+                after != null ? after.distanceKm() * 1000 : -1, after != null ? after.vehicleId() : 0, limit);
+        Map<Long, Vehicle> vehicles = vehicleRepository.findAllById(
+                        distances.stream().map(VehicleDistance::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Vehicle::getId, v -> v));
+        List<VehicleResponse> responses = new ArrayList<>(distances.size());
+        for (VehicleDistance distance : distances) {
+            Vehicle vehicle = vehicles.get(distance.getId());
+            if (vehicle != null) {
+                responses.add(mapToResponse(vehicle, distance.getDistanceMeters() / 1000));
+            }
+        }
+        return responses;
+    }
+    
+    /**
+     * Faceted search over available vehicles: structured filters plus facet counts over every match, served
+     * from the in-memory facet and geo indexes, or from the database (feature tags filtered in SQL) until
+     * they have loaded.
+     */
+    public VehicleFacetSearchResponse facetedSearch(VehicleFacetSearchRequest request) {
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int pageSize = request.getSize() != null
+                ? Math.min(request.getSize(), MAX_SEARCH_PAGE_SIZE) : DEFAULT_NEARBY_PAGE_SIZE;
+        boolean located = request.getLatitude() != null && request.getLongitude() != null;
+        double radius = request.getRadiusKm() != null
+                ? Math.min(request.getRadiusKm(), MAX_NEARBY_RADIUS_KM) : DEFAULT_NEARBY_RADIUS_KM;
+        
+        FacetPage result = null;
+        Map<Long, Double> distances = null;
+        Optional<List<VehicleResponse>> nearby = located
+                ? availableVehicleIndex.findWithinRadius(request.getLatitude(), request.getLongitude(), radius, null)
+                : Optional.of(List.of());
+        if (nearby.isPresent()) {
+            if (located) {
+                distances = new HashMap<>();
+                for (VehicleResponse vehicle : nearby.get()) {
+                    distances.put(vehicle.getId(), vehicle.getDistanceKm());
+                }
+            }
+            result = vehicleFacetIndex.search(request, distances, page, pageSize).orElse(null);
+        }
+        if (result == null) {
+            result = facetedSearchInDatabase(request, located, radius, page, pageSize);
+        }
         
-        return vehicles.stream()
-                .map(v -> {
-                    Double distance = calculateDistance(searchLocation, v.getCurrentLocation());
-                    return mapToResponse(v, distance);
-                })
+        return VehicleFacetSearchResponse.builder()
+                .vehicles(result.content())
+                .pageNumber(page)
+                .pageSize(pageSize)
+                .totalElements(result.totalElements())
+                .facets(result.facets())
+                .build();
+    }
+    
+    private FacetPage facetedSearchInDatabase(VehicleFacetSearchRequest request, boolean located, double radiusKm,
+                                              int page, int pageSize) {
+        Set<String> tags = new HashSet<>();
+        if (request.getFeatures() != null) {
+            request.getFeatures().stream()
+                    .map(VehicleFeatures::normalize)
+                    .filter(tag -> tag != null)
+                    .forEach(tags::add);
+        }
+        List<Vehicle> vehicles = tags.isEmpty()
+                ? vehicleRepository.findAvailableVehicles()
+                : vehicleRepository.findAvailableWithAllFeatures(tags, tags.size());
+        
+        Map<Long, Double> distances = null;
+        if (located) {
+            Point searchLocation = createPoint(request.getLatitude(), request.getLongitude());
+            distances = new HashMap<>();
+            for (Vehicle vehicle : vehicles) {
+                Double distance = calculateDistance(searchLocation, vehicle.getCurrentLocation());
+                if (distance != null && distance <= radiusKm) {
+                    distances.put(vehicle.getId(), distance);
+                }
+            }
+        }
+        List<VehicleResponse> responses = vehicles.stream()
+                .map(v -> mapToResponse(v, null))
                 .collect(Collectors.toList());
+        return VehicleFacetIndex.searchIn(responses, request, distances, page, pageSize);
+    }
+    
+    /** Nearest AVAILABLE vehicles, served from the in-memory index once it has loaded. */
+    public List<VehicleResponse> getNearestVehicles(Double latitude, Double longitude, Integer requestedLimit) {
+        int limit = requestedLimit != null && requestedLimit > 0
+                ? Math.min(requestedLimit, MAX_SEARCH_PAGE_SIZE) : DEFAULT_NEARBY_PAGE_SIZE;
+        log.info("Fetching nearest {} vehicles to location: lat={}, lon={}", limit, latitude, longitude);
+        
+        return availableVehicleIndex.findNearest(latitude, longitude, limit)
+                .orElseGet(() -> {
+                    Point searchLocation = createPoint(latitude, longitude);
+                    return vehicleRepository.findNearestVehicles(searchLocation, limit).stream()
+                            .map(v -> mapToResponse(v, calculateDistance(searchLocation, v.getCurrentLocation())))
+                            .collect(Collectors.toList());
+                });
     }
     
     @Transactional
@@ -188,6 +442,13 @@ public class VehicleService {
         
         mapRequestToEntity(request, vehicle);
         vehicle = vehicleRepository.save(vehicle);
+        publishVehicleChanged(vehicle);
+        
+        // Publish vehicle updated event
+        Map<String, Object> eventData = new HashMap<>();
+        eventData.put("vehicleId", vehicle.getId());
+        eventData.put("vehicleType", vehicle.getVehicleType());
+        publishVehicleEventAfterCommit("vehicle.updated", eventData);
         
         log.info("Vehicle updated successfully: {}", id);
         
@@ -196,32 +457,32 @@ public class VehicleService {
     
     @Transactional
     public VehicleResponse updateVehicleStatus(Long id, VehicleStatus status) {
-        log.info("Updating vehicle status: {} to {}", id, status);
+        return updateVehicleStatus(id, status, null);
+    }
+    
+    /**
+     * Moves a vehicle to {@code status} with a conditional update. With {@code expectedStatus} the change only
+     * applies while the vehicle is still in that status (STATUS_CONFLICT otherwise), so callers need no
+     * read-modify-write round trip; without it the current status is read and the update retried server-side
+     * if another writer gets in between. Transitions are validated by {@link VehicleStatusTransitions}.
+     */
+    @Transactional
+    public VehicleResponse updateVehicleStatus(Long id, VehicleStatus status, VehicleStatus expectedStatus) {
+        log.info("Updating vehicle status: {} to {} (expected {})", id, status, expectedStatus);
         
+        VehicleStatus oldStatus = transitionStatus(id, status, expectedStatus);
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", id));
         
-        VehicleStatus oldStatus = vehicle.getStatus();
-        vehicle.setStatus(status);
-        
-        if (status == VehicleStatus.AVAILABLE) {
-            vehicle.setAvailable(true);
-        } else {
-            vehicle.setAvailable(false);
-        }
-        
-        vehicle = vehicleRepository.save(vehicle);
-        
-        // Publish status update event
-        try {
+        if (oldStatus != status) {
+            publishVehicleChanged(vehicle);
+            
+            // Publish status update event
             Map<String, Object> eventData = new HashMap<>();
             eventData.put("vehicleId", vehicle.getId());
             eventData.put("oldStatus", oldStatus);
             eventData.put("newStatus", status);
-            eventPublisher.publishVehicleEvent("vehicle.status.updated", eventData);
-        } catch (Exception e) {
-            log.warn("Failed to publish vehicle status updated event for vehicle ID: {}. Error: {}", 
-                    vehicle.getId(), e.getMessage());
+            publishVehicleEventAfterCommit("vehicle.status.updated", eventData);
         }
         
         log.info("Vehicle status updated successfully: {}", id);
@@ -229,6 +490,93 @@ public class VehicleService {
         return mapToResponse(vehicle, null);
     }
     
+    /**
+     * Applies many status changes in one transaction and announces them with a single
+     * {@code vehicle.status.batch-updated} event. Each change is a compare-and-set like
+     * {@link #updateVehicleStatus(Long, VehicleStatus, VehicleStatus)}; unknown vehicles, invalid transitions and
+     * unmet expected statuses are skipped and left out of the result. When a vehicle appears more than once its
+     * last update wins.
+     */
+    @Transactional
+    public List<VehicleResponse> updateVehicleStatuses(List<VehicleStatusBatchRequest.StatusUpdate> updates) {
+        log.info("Updating status of {} vehicles", updates.size());
+        
+        Map<Long, VehicleStatusBatchRequest.StatusUpdate> latest = new LinkedHashMap<>();
+        updates.forEach(update -> latest.put(update.getVehicleId(), update));
+        
+        ArrayList<Map<String, Object>> changes = new ArrayList<>(latest.size());
+        List<Long> applied = new ArrayList<>(latest.size());
+        latest.forEach((id, update) -> {
+            VehicleStatus oldStatus;
+            try {
+                oldStatus = transitionStatus(id, update.getStatus(), update.getExpectedStatus());
+            } catch (BusinessException | ResourceNotFoundException e) {
+                log.warn("Skipping status update of vehicle {} to {}: {}", id, update.getStatus(), e.getMessage());
+                return;
+            }
+            applied.add(id);
+            if (oldStatus != update.getStatus()) {
+                Map<String, Object> change = new HashMap<>();
+                change.put("vehicleId", id);
+                change.put("oldStatus", oldStatus);
+                change.put("newStatus", update.getStatus());
+                changes.add(change);
+            }
+        });
+        
+        List<Vehicle> vehicles = vehicleRepository.findAllById(applied);
+        Set<Long> changedIds = changes.stream()
+                .map(change -> (Long) change.get("vehicleId"))
+                .collect(Collectors.toSet());
+        vehicles.stream().filter(v -> changedIds.contains(v.getId())).forEach(this::publishVehicleChanged);
+        
+        if (!changes.isEmpty()) {
+            Map<String, Object> eventData = new HashMap<>();
+            eventData.put("vehicleIds", new ArrayList<>(changedIds));
+            eventData.put("changes", changes);
+            publishVehicleEventAfterCommit("vehicle.status.batch-updated", eventData);
+        }
+        
+        return vehicles.stream()
+                .map(v -> mapToResponse(v, null))
+                .collect(Collectors.toList());
+    }
+    
+    /** Compare-and-set loop behind the status updates; returns the status the vehicle had before. */
+    private VehicleStatus transitionStatus(Long id, VehicleStatus target, VehicleStatus expectedStatus) {
+        for (int attempt = 1; ; attempt++) {
+            VehicleStatus current = expectedStatus != null
+                    ? expectedStatus
+                    : vehicleRepository.findStatusById(id)
+                            .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", id));
+            if (expectedStatus == null && current == target) {
+                return current;
+            }
+            if (!VehicleStatusTransitions.isAllowed(current, target)) {
+                throw new BusinessException("Vehicle cannot move from " + current + " to " + target,
+                        "INVALID_STATUS_TRANSITION");
+            }
+            if (vehicleRepository.compareAndSetStatus(id, current, target, target == VehicleStatus.AVAILABLE,
+                    LocalDateTime.now()) == 1) {
+                return current;
+            }
+            
+            VehicleStatus actual = vehicleRepository.findStatusById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "id", id));
+            if (actual == target) {
+                return target; // someone else already made the same move
+            }
+            if (expectedStatus != null) {
+                throw new BusinessException("Vehicle status is " + actual + ", expected " + expectedStatus,
+                        "STATUS_CONFLICT");
+            }
+            if (attempt >= MAX_STATUS_UPDATE_ATTEMPTS) {
+                throw new BusinessException("Vehicle status kept changing, please retry", "STATUS_CONFLICT");
+            }
+            log.debug("Status of vehicle {} changed concurrently (attempt {}), retrying", id, attempt);
+        }
+    }
+    
     @Transactional
     public VehicleResponse updateVehicleLocation(Long id, Double latitude, Double longitude, String address) {
         log.info("Updating vehicle location: {}", id);
@@ -244,18 +592,14 @@ public class VehicleService {
         }
         
         vehicle = vehicleRepository.save(vehicle);
+        publishVehicleChanged(vehicle);
         
         // Publish location update event
-        try {
-            Map<String, Object> eventData = new HashMap<>();
-            eventData.put("vehicleId", vehicle.getId());
-            eventData.put("latitude", latitude);
-            eventData.put("longitude", longitude);
-            eventPublisher.publishVehicleEvent("vehicle.location.updated", eventData);
-        } catch (Exception e) {
-            log.warn("Failed to publish vehicle location updated event for vehicle ID: {}. Error: {}", 
-                    vehicle.getId(), e.getMessage());
-        }
+        Map<String, Object> eventData = new HashMap<>();
+        eventData.put("vehicleId", vehicle.getId());
+        eventData.put("latitude", latitude);
+        eventData.put("longitude", longitude);
+        publishVehicleEventAfterCommit("vehicle.location.updated", eventData);
         
         log.info("Vehicle location updated successfully: {}", id);
         
@@ -276,6 +620,7 @@ public class VehicleService {
             vehicle.setTotalReviews(totalReviews);
         }
         vehicle = vehicleRepository.save(vehicle);
+        publishVehicleChanged(vehicle);
         
         log.info("Vehicle rating updated successfully: {}", id);
         return mapToResponse(vehicle, null);
@@ -293,6 +638,14 @@ public class VehicleService {
         }
         
         vehicleRepository.delete(vehicle);
+        applicationEventPublisher.publishEvent(new VehicleChangedEvent(id, null));
+        
+        // Publish vehicle deleted event
+        Map<String, Object> eventData = new HashMap<>();
+        eventData.put("vehicleId", id);
+        eventData.put("vehicleType", vehicle.getVehicleType());
+        publishVehicleEventAfterCommit("vehicle.deleted", eventData);
+        
         log.info("Vehicle deleted successfully: {}", id);
     }
     
@@ -303,6 +656,36 @@ public class VehicleService {
                 .collect(Collectors.toList());
     }
     
+    /** Lets the in-memory index pick up the new state once the transaction commits. */
+    private void publishVehicleChanged(Vehicle vehicle) {
+        applicationEventPublisher.publishEvent(new VehicleChangedEvent(vehicle.getId(), mapToResponse(vehicle, null)));
+    }
+    
+    /**
+     * Publishes a {@code vehicle.*} event once the surrounding transaction commits, so consumers that re-read the
+     * vehicle (such as {@code VehicleIndexSynchronizer} on every instance) see the committed row. Publishing
+     * failures are logged and never fail the caller.
+     */
+    private void publishVehicleEventAfterCommit(String eventType, Map<String, Object> eventData) {
+        Runnable publish = () -> {
+            try {
+                eventPublisher.publishVehicleEvent(eventType, eventData);
+            } catch (Exception e) {
+                log.warn("Failed to publish {} event {}. Error: {}", eventType, eventData, e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+    
     private void mapRequestToEntity(VehicleRequest request, Vehicle vehicle) {
         if (request.getOwnerId() != null) {
             vehicle.setOwnerId(request.getOwnerId());
@@ -324,6 +707,8 @@ public class VehicleService {
         vehicle.setImageUrl(request.getImageUrl());
         vehicle.setDescription(request.getDescription());
         vehicle.setFeatures(request.getFeatures());
+        vehicle.getFeatureTags().clear();
+        vehicle.getFeatureTags().addAll(VehicleFeatures.parse(request.getFeatures()));
         vehicle.setRequiresDriver(request.getRequiresDriver() != null ? request.getRequiresDriver() : false);
         vehicle.setDriverPricePerHour(request.getDriverPricePerHour());
         vehicle.setDriverPricePerDay(request.getDriverPricePerDay());
@@ -368,6 +753,7 @@ public class VehicleService {
         response.setImageUrl(vehicle.getImageUrl());
         response.setDescription(vehicle.getDescription());
         response.setFeatures(vehicle.getFeatures());
+        response.setFeatureTags(new ArrayList<>(VehicleFeatures.parse(vehicle.getFeatures())));
         response.setAvailable(vehicle.getAvailable());
         response.setRequiresDriver(vehicle.getRequiresDriver());
         response.setDriverPricePerHour(vehicle.getDriverPricePerHour());
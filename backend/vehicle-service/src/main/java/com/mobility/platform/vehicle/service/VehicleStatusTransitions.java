@@ -0,0 +1,40 @@
+package com.mobility.platform.vehicle.service;
+
+import com.mobility.platform.common.enums.VehicleStatus;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allowed vehicle status transitions. Booking moves are lenient about skipped steps (AVAILABLE -> IN_USE,
+ * IN_USE -> BOOKED) because booking-service coalesces rapid status changes into one update.
+ * Staying in the same status is always allowed.
+ */
+final class VehicleStatusTransitions {
+
+    private static final Map<VehicleStatus, Set<VehicleStatus>> ALLOWED = new EnumMap<>(VehicleStatus.class);
+
+    static {
+        ALLOWED.put(VehicleStatus.AVAILABLE, EnumSet.of(VehicleStatus.BOOKED, VehicleStatus.IN_USE,
+                VehicleStatus.MAINTENANCE, VehicleStatus.OUT_OF_SERVICE, VehicleStatus.UNAVAILABLE));
+        ALLOWED.put(VehicleStatus.BOOKED, EnumSet.of(VehicleStatus.AVAILABLE, VehicleStatus.IN_USE,
+                VehicleStatus.MAINTENANCE, VehicleStatus.UNAVAILABLE));
+        ALLOWED.put(VehicleStatus.IN_USE, EnumSet.of(VehicleStatus.AVAILABLE, VehicleStatus.BOOKED,
+                VehicleStatus.MAINTENANCE));
+        ALLOWED.put(VehicleStatus.MAINTENANCE, EnumSet.of(VehicleStatus.AVAILABLE, VehicleStatus.OUT_OF_SERVICE,
+                VehicleStatus.UNAVAILABLE));
+        ALLOWED.put(VehicleStatus.OUT_OF_SERVICE, EnumSet.of(VehicleStatus.AVAILABLE, VehicleStatus.MAINTENANCE,
+                VehicleStatus.UNAVAILABLE));
+        ALLOWED.put(VehicleStatus.UNAVAILABLE, EnumSet.of(VehicleStatus.AVAILABLE, VehicleStatus.MAINTENANCE,
+                VehicleStatus.OUT_OF_SERVICE));
+    }
+
+    private VehicleStatusTransitions() {
+    }
+
+    static boolean isAllowed(VehicleStatus from, VehicleStatus to) {
+        return from == to || ALLOWED.getOrDefault(from, Set.of()).contains(to);
+    }
+}
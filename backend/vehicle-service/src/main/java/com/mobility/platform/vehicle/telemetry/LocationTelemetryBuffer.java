@@ -0,0 +1,160 @@
+package com.mobility.platform.vehicle.telemetry;
+
+import com.mobility.platform.common.event.EventPublisher;
+import com.mobility.platform.common.exception.BusinessException;
+import com.mobility.platform.vehicle.dto.TelemetryPing;
+import com.mobility.platform.vehicle.geo.AvailableVehicleIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for high-frequency GPS pings.
+ * <p>
+ * Pings are coalesced in memory to the latest fix per vehicle (by device time), so a vehicle reporting every
+ * few seconds costs one map write per ping and at most one row update per flush. Every
+ * {@code vehicle.telemetry.flush-interval-ms} the buffer is drained and written with batched
+ * {@code UPDATE ... FROM (VALUES ...)} statements, the in-memory index is moved, and one
+ * {@code vehicle.location.batch} event per chunk tells the other instances.
+ * <p>
+ * Fixes still buffered when an instance dies are lost; the next ping from the vehicle supersedes them anyway.
+ */
+@Slf4j
+@Component
+public class LocationTelemetryBuffer {
+
+    private static final String UPDATE_PREFIX =
+            "UPDATE vehicles v SET current_location = ST_SetSRID(ST_MakePoint(u.lon, u.lat), 4326), " +
+            "updated_at = now(), version = v.version + 1 FROM (VALUES ";
+    private static final String UPDATE_ROW = "(CAST(? AS bigint), CAST(? AS float8), CAST(? AS float8))";
+    private static final String UPDATE_SUFFIX = ") AS u(id, lat, lon) WHERE v.id = u.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AvailableVehicleIndex availableVehicleIndex;
+    private final EventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxBufferedVehicles;
+
+    private final ConcurrentHashMap<Long, LocationFix> pending = new ConcurrentHashMap<>();
+
+    public LocationTelemetryBuffer(JdbcTemplate jdbcTemplate,
+                                   AvailableVehicleIndex availableVehicleIndex,
+                                   EventPublisher eventPublisher,
+                                   @Value("${vehicle.telemetry.batch-size:1000}") int batchSize,
+                                   @Value("${vehicle.telemetry.max-buffered-vehicles:200000}") int maxBufferedVehicles) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.availableVehicleIndex = availableVehicleIndex;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBufferedVehicles = maxBufferedVehicles;
+    }
+
+    /** Buffers the pings, keeping only the newest fix per vehicle. Returns the number accepted. */
+    public int offer(List<TelemetryPing> pings) {
+        LocalDateTime receivedAt = LocalDateTime.now();
+        for (TelemetryPing ping : pings) {
+            if (pending.size() >= maxBufferedVehicles && !pending.containsKey(ping.getVehicleId())) {
+                throw new BusinessException("Telemetry buffer is full, retry shortly", "TELEMETRY_BACKPRESSURE");
+            }
+            LocationFix fix = new LocationFix(ping.getVehicleId(), ping.getLatitude(), ping.getLongitude(),
+                    ping.getRecordedAt() != null ? ping.getRecordedAt() : receivedAt);
+            pending.merge(fix.vehicleId(), fix, (current, incoming) ->
+                    incoming.recordedAt().isBefore(current.recordedAt()) ? current : incoming);
+        }
+        return pings.size();
+    }
+
+    @Scheduled(fixedDelayString = "${vehicle.telemetry.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush vehicle telemetry", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Remove key by key: a ping arriving mid-drain either lands in this batch or stays for the next one
+        List<LocationFix> fixes = new ArrayList<>(pending.size());
+        for (Long vehicleId : pending.keySet()) {
+            LocationFix fix = pending.remove(vehicleId);
+            if (fix != null) {
+                fixes.add(fix);
+            }
+        }
+        int updated = 0;
+        for (int from = 0; from < fixes.size(); from += batchSize) {
+            List<LocationFix> chunk = fixes.subList(from, Math.min(from + batchSize, fixes.size()));
+            try {
+                updated += writeChunk(chunk);
+            } catch (Exception e) {
+                requeue(fixes.subList(from, fixes.size()));
+                throw e;
+            }
+            chunk.forEach(fix -> availableVehicleIndex.onVehicleMoved(fix.vehicleId(), fix.latitude(), fix.longitude()));
+            publishChunk(chunk);
+        }
+        log.debug("Flushed {} coalesced vehicle locations ({} rows updated)", fixes.size(), updated);
+    }
+
+    private int writeChunk(List<LocationFix> chunk) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX);
+        Object[] args = new Object[chunk.size() * 3];
+        for (int i = 0; i < chunk.size(); i++) {
+            LocationFix fix = chunk.get(i);
+            sql.append(i == 0 ? "" : ", ").append(UPDATE_ROW);
+            args[i * 3] = fix.vehicleId();
+            args[i * 3 + 1] = fix.latitude();
+            args[i * 3 + 2] = fix.longitude();
+        }
+        sql.append(UPDATE_SUFFIX);
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+
+    /** Puts fixes that were not written back, unless a newer fix has arrived since. */
+    private void requeue(List<LocationFix> unwritten) {
+        for (LocationFix fix : unwritten) {
+            pending.merge(fix.vehicleId(), fix, (current, failed) ->
+                    failed.recordedAt().isAfter(current.recordedAt()) ? failed : current);
+        }
+    }
+
+    private void publishChunk(List<LocationFix> chunk) {
+        try {
+            ArrayList<Map<String, Object>> locations = new ArrayList<>(chunk.size());
+            for (LocationFix fix : chunk) {
+                Map<String, Object> location = new HashMap<>();
+                location.put("vehicleId", fix.vehicleId());
+                location.put("latitude", fix.latitude());
+                location.put("longitude", fix.longitude());
+                locations.add(location);
+            }
+            Map<String, Object> eventData = new HashMap<>();
+            eventData.put("locations", locations);
+            eventPublisher.publishVehicleEvent("location.batch", eventData);
+        } catch (Exception e) {
+            log.warn("Failed to publish vehicle location batch event. Error: {}", e.getMessage());
+        }
+    }
+
+    private record LocationFix(Long vehicleId, double latitude, double longitude, LocalDateTime recordedAt) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.mobility.platform.vehicle.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN that the spatial queries of VehicleRepository are planned on
+ * idx_vehicles_available_location_geog. Needs a PostGIS database, so it only runs when
+ * {@code VEHICLE_TEST_DB_URL} (plus {@code VEHICLE_TEST_DB_USERNAME}/{@code VEHICLE_TEST_DB_PASSWORD}) is set;
+ * it works in a scratch schema that is dropped afterwards. {@code VEHICLE_TEST_DB_ROWS} sets the seeded table
+ * size (default 1,000,000).
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "VEHICLE_TEST_DB_URL", matches = ".+")
+class VehicleSchemaInitializerExplainTest {
+
+    private static final String SCHEMA = "vehicle_explain_test";
+    private static final String INDEX = "idx_vehicles_available_location_geog";
+    private static final String LOCATION = "ST_SetSRID(ST_MakePoint(51.389, 35.689), 4326)";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        String url = System.getenv("VEHICLE_TEST_DB_URL");
+        DriverManagerDataSource admin = new DriverManagerDataSource(url,
+                System.getenv("VEHICLE_TEST_DB_USERNAME"), System.getenv("VEHICLE_TEST_DB_PASSWORD"));
+        new JdbcTemplate(admin).execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE; CREATE SCHEMA " + SCHEMA);
+
+        String separator = url.contains("?") ? "&" : "?";
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url + separator + "currentSchema=" + SCHEMA + ",public",
+                System.getenv("VEHICLE_TEST_DB_USERNAME"), System.getenv("VEHICLE_TEST_DB_PASSWORD")));
+        int rows = Integer.parseInt(System.getenv().getOrDefault("VEHICLE_TEST_DB_ROWS", "1000000"));
+        jdbcTemplate.execute("""
+                CREATE TABLE vehicles (
+                    id bigserial PRIMARY KEY,
+                    vehicle_type varchar(50) NOT NULL,
+                    status varchar(50) NOT NULL,
+                    available boolean NOT NULL,
+                    current_location geometry(Point, 4326)
+                )""");
+        // Spread over Iran; about one vehicle in ten is rentable
+        jdbcTemplate.execute("""
+                INSERT INTO vehicles (vehicle_type, status, available, current_location)
+                SELECT (ARRAY['CAR', 'BIKE', 'SCOOTER'])[1 + g %% 3],
+                       CASE WHEN g %% 10 = 0 THEN 'AVAILABLE' ELSE 'BOOKED' END,
+                       g %% 10 = 0,
+                       ST_SetSRID(ST_MakePoint(44 + random() * 19, 25 + random() * 15), 4326)
+                FROM generate_series(1, %d) AS g""".formatted(rows));
+
+        new VehicleSchemaInitializer(jdbcTemplate).run();
+        jdbcTemplate.execute("ANALYZE vehicles");
+    }
+
+    @AfterAll
+    void dropSchema() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void radiusSearchUsesGeographyIndex() {
+        assertThat(plan("SELECT * FROM vehicles v " +
+                "WHERE v.status = 'AVAILABLE' " +
+                "AND v.available = true " +
+                "AND ST_DWithin(CAST(v.current_location AS geography), CAST(" + LOCATION + " AS geography), 5000) " +
+                "ORDER BY ST_Distance(CAST(v.current_location AS geography), CAST(" + LOCATION + " AS geography))"))
+                .contains(INDEX);
+    }
+
+    @Test
+    void nearestSearchWalksGeographyIndex() {
+        assertThat(plan("SELECT * FROM vehicles v " +
+                "WHERE v.status = 'AVAILABLE' AND v.available = true AND v.current_location IS NOT NULL " +
+                "ORDER BY CAST(v.current_location AS geography) <-> CAST(" + LOCATION + " AS geography) " +
+                "LIMIT 10"))
+                .contains(INDEX);
+    }
+
+    private String plan(String sql) {
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", lines);
+    }
+}
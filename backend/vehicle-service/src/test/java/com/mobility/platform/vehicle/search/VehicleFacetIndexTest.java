@@ -0,0 +1,43 @@
+package com.mobility.platform.vehicle.search;
+
+import com.mobility.platform.common.enums.VehicleStatus;
+import com.mobility.platform.vehicle.dto.VehicleFacetSearchRequest;
+import com.mobility.platform.vehicle.dto.VehicleResponse;
+import com.mobility.platform.vehicle.search.VehicleFacetIndex.FacetPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VehicleFacetIndexTest {
+
+    @Test
+    void pageBeyondMatchesIsEmptyButKeepsCounts() {
+        List<VehicleResponse> vehicles = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            vehicles.add(vehicle(id));
+        }
+
+        FacetPage last = VehicleFacetIndex.searchIn(vehicles, new VehicleFacetSearchRequest(), null, 2, 10);
+        // page * size overflows int here
+        FacetPage huge = VehicleFacetIndex.searchIn(vehicles, new VehicleFacetSearchRequest(), null,
+                Integer.MAX_VALUE / 10, 100);
+
+        assertThat(last.content()).extracting(VehicleResponse::getId).containsExactly(21L, 22L, 23L, 24L, 25L);
+        assertThat(huge.content()).isEmpty();
+        assertThat(huge.totalElements()).isEqualTo(25);
+        assertThat(huge.facets()).isEqualTo(last.facets());
+    }
+
+    private static VehicleResponse vehicle(long id) {
+        VehicleResponse vehicle = new VehicleResponse();
+        vehicle.setId(id);
+        vehicle.setVehicleType("CAR");
+        vehicle.setFuelType("PETROL");
+        vehicle.setStatus(VehicleStatus.AVAILABLE);
+        vehicle.setAvailable(true);
+        return vehicle;
+    }
+}
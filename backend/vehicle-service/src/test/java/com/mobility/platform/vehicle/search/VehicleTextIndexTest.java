@@ -0,0 +1,93 @@
+package com.mobility.platform.vehicle.search;
+
+import com.mobility.platform.common.enums.VehicleStatus;
+import com.mobility.platform.vehicle.dto.VehicleResponse;
+import com.mobility.platform.vehicle.search.VehicleTextIndex.TextPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VehicleTextIndexTest {
+
+    @Test
+    void pagesThroughRankedMatches() {
+        VehicleTextIndex index = index(vehicles(25, "Toyota"));
+
+        TextPage last = index.search("toyota", false, 2, 10).orElseThrow();
+
+        assertThat(last.totalElements()).isEqualTo(25);
+        assertThat(last.content()).extracting(VehicleResponse::getId).containsExactly(21L, 22L, 23L, 24L, 25L);
+    }
+
+    @Test
+    void pageBeyondMatchesIsEmpty() {
+        VehicleTextIndex index = index(vehicles(25, "Toyota"));
+
+        assertThat(index.search("toyota", false, 3, 10).orElseThrow().content()).isEmpty();
+        // page * size overflows int here
+        TextPage huge = index.search("toyota", false, Integer.MAX_VALUE / 10, 100).orElseThrow();
+        assertThat(huge.content()).isEmpty();
+        assertThat(huge.totalElements()).isEqualTo(25);
+    }
+
+    @Test
+    void shortPrefixExpandsMostFrequentTerms() {
+        List<VehicleResponse> vehicles = new ArrayList<>();
+        // More rare terms under "k" than the expansion cap, all sorting before "kia"
+        for (long id = 1; id <= VehicleTextIndex.MAX_PREFIX_TERMS + 10; id++) {
+            vehicles.add(vehicle(id, "k" + (1000 + id), "x"));
+        }
+        for (long id = 1001; id <= 1005; id++) {
+            vehicles.add(vehicle(id, "Kia", "Pride"));
+        }
+        VehicleTextIndex index = index(vehicles);
+
+        TextPage page = index.search("k", false, 0, 100).orElseThrow();
+
+        // "kia" and the 63 rare terms that fit under the cap
+        assertThat(page.totalElements()).isEqualTo(5 + VehicleTextIndex.MAX_PREFIX_TERMS - 1);
+        assertThat(page.content()).extracting(VehicleResponse::getId)
+                .contains(1001L, 1002L, 1003L, 1004L, 1005L);
+    }
+
+    @Test
+    void exactTermIsAlwaysExpanded() {
+        List<VehicleResponse> vehicles = new ArrayList<>();
+        for (long id = 1; id <= VehicleTextIndex.MAX_PREFIX_TERMS + 10; id++) {
+            vehicles.add(vehicle(id, "bm" + id, "x"));
+            vehicles.add(vehicle(1000 + id, "bm" + id, "y"));
+        }
+        vehicles.add(vehicle(5000, "Bm", "z"));
+        VehicleTextIndex index = index(vehicles);
+
+        assertThat(index.search("bm", false, 0, 1).orElseThrow().content())
+                .extracting(VehicleResponse::getId).containsExactly(5000L);
+    }
+
+    private static VehicleTextIndex index(List<VehicleResponse> vehicles) {
+        VehicleTextIndex index = new VehicleTextIndex(true);
+        index.rebuild(() -> vehicles);
+        return index;
+    }
+
+    private static List<VehicleResponse> vehicles(int count, String brand) {
+        List<VehicleResponse> vehicles = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            vehicles.add(vehicle(id, brand, "Model " + id));
+        }
+        return vehicles;
+    }
+
+    private static VehicleResponse vehicle(long id, String brand, String model) {
+        VehicleResponse vehicle = new VehicleResponse();
+        vehicle.setId(id);
+        vehicle.setBrand(brand);
+        vehicle.setModel(model);
+        vehicle.setStatus(VehicleStatus.AVAILABLE);
+        vehicle.setAvailable(true);
+        return vehicle;
+    }
+}